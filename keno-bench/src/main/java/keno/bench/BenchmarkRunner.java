@@ -0,0 +1,20 @@
+package keno.bench;
+
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.*;
+
+
+// Runs the keno.logic benchmarks with the gc profiler attached: java -jar target/benchmarks.jar [regex] [results.json]
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder b = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "keno\\.bench\\..*")
+                .addProfiler(GCProfiler.class);
+        if (args.length > 1) b.resultFormat(ResultFormatType.JSON).result(args[1]);
+        new Runner(b.build()).run();
+    }
+}
@@ -0,0 +1,42 @@
+package keno.bench;
+
+
+import keno.logic.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BetCardBench {
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private BetCard card;
+    private int next;
+
+
+    @Setup
+    public void setup() { card = new BetCard(); card.setSpots(spots); }
+
+
+    @Benchmark
+    public boolean quickFill() {
+        card.setSpots(spots);
+        card.quickFill();
+        return card.isComplete();
+    }
+
+
+    // add then remove the same number so the card never fills up
+    @Benchmark
+    public boolean togglePick() {
+        int n = 1 + (next++ % 80);
+        card.togglePick(n);
+        return card.togglePick(n);
+    }
+}
@@ -0,0 +1,56 @@
+package keno.bench;
+
+
+import keno.logic.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DrawingEngineBench {
+    private DrawingEngine engine, sharedEngine;
+    private final NumberMask drawn = new NumberMask();
+
+
+    // One generator per trial shared by every thread. SplittableRandom is not thread-safe, so each thread takes a
+    // split() of it instead; SECURE threads contend on the one SecureRandom.
+    @State(Scope.Benchmark)
+    public static class Source {
+        @Param({"SPLITTABLE", "THREAD_LOCAL", "SECURE"})
+        public RngStrategy rng;
+        private RandomGenerator shared;
+
+        @Setup
+        public void setup() { shared = rng.create(); }
+
+        synchronized RandomGenerator forThread() { return shared instanceof SplittableRandom s ? s.split() : shared; }
+    }
+
+
+    @Setup
+    public void setup(Source src) {
+        engine = new DrawingEngine(src.rng);
+        sharedEngine = new DrawingEngine(src.forThread());
+    }
+
+
+    @Benchmark
+    public Set<Integer> draw20Set() { return engine.draw20(); }
+
+
+    @Benchmark
+    public long draw20Mask() { engine.draw20(drawn); return drawn.lo() ^ drawn.hi(); }
+
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long draw20Mask_sharedSource() { sharedEngine.draw20(drawn); return drawn.lo() ^ drawn.hi(); }
+}
@@ -0,0 +1,46 @@
+package keno.bench;
+
+
+import keno.logic.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KenoGameBench {
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private final KenoGame game = new KenoGame();
+    private Set<Integer> picks, drawn;
+    private NumberMask pickMask, drawnMask;
+
+
+    @Setup
+    public void setup() {
+        BetCard card = new BetCard(RngStrategy.seeded(1));
+        card.setSpots(spots);
+        card.quickFill();
+        picks = card.getPicks();
+        drawn = new DrawingEngine(RngStrategy.seeded(2)).draw20();
+        pickMask = NumberMask.of(picks);
+        drawnMask = NumberMask.of(drawn);
+        game.configure(spots, 4);
+        game.start();
+    }
+
+
+    @Benchmark
+    public MatchResult computeResult() { return game.computeResult(picks, drawn); }
+
+
+    @Benchmark
+    public int settle() { return game.settle(pickMask, drawnMask); }
+
+}
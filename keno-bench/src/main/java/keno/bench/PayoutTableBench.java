@@ -0,0 +1,42 @@
+package keno.bench;
+
+
+import keno.logic.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayoutTableBench {
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private int k;
+
+
+    @Benchmark
+    public int payout() {
+        k = k == spots ? 0 : k + 1;
+        return PayoutTable.payout(spots, k);
+    }
+
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final PaySchedule schedule = PayoutTable.active();
+    }
+
+
+    // all threads reading one schedule instance; only the match cursor is per thread
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int prize_shared(Shared s) {
+        k = k == spots ? 0 : k + 1;
+        return s.schedule.prize(spots, k);
+    }
+}
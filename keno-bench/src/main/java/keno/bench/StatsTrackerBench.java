@@ -0,0 +1,40 @@
+package keno.bench;
+
+
+import keno.logic.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StatsTrackerBench {
+    private final MatchResult result = new MatchResult(1, Set.of(3, 7), 2, 1);
+    private StatsTracker stats;
+
+
+    // fresh tracker per iteration so the history list does not grow across the whole run
+    @Setup(Level.Iteration)
+    public void setup() { stats = new StatsTracker(); }
+
+
+    @Benchmark
+    public long record() { stats.record(result); return stats.totalWins(); }
+
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final StatsTracker stats = StatsTracker.streaming(1024);
+    }
+
+
+    // all threads recording into one streaming tracker
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void recordStreaming_shared(Shared s) { s.stats.record(4, result); }
+}
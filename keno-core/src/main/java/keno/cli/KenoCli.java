@@ -0,0 +1,89 @@
+package keno.cli;
+
+
+import keno.load.LoadTest;
+import keno.logic.*;
+import keno.server.KenoServer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+
+// Headless entry point for keno-core; every command runs without JavaFX on the classpath:
+//   java -jar keno-core.jar odds [schedule-file]
+//   java -jar keno-core.jar payouts [schedule-file]
+//   java -jar keno-core.jar simulate [draws] [seed]
+//   java -jar keno-core.jar server [port] [drawIntervalMillis]
+//   java -jar keno-core.jar audit <journal> [seed]
+//   java -jar keno-core.jar export <journal> <out.kcol|out.csv>[.gz]
+//   java -jar keno-core.jar import <export-file>
+//   java -jar keno-core.jar exposure [tickets] [samples]
+//   java -jar keno-core.jar load [mode=in|server] [players=N] [rate=N] [tickets=N] [drawings=N] [quick=0..1] [interval=ms]
+public final class KenoCli {
+    public static void main(String[] args) throws Exception {
+        String cmd = args.length > 0 ? args[0] : "help";
+        String[] rest = args.length > 0 ? Arrays.copyOfRange(args, 1, args.length) : args;
+        switch (cmd) {
+            case "odds" -> System.out.print(OddsTable.of(schedule(rest)).asTextTable());
+            case "payouts" -> System.out.print(schedule(rest).asTextTable());
+            case "simulate" -> RtpSimulator.main(rest);
+            case "server" -> KenoServer.main(rest);
+            case "audit" -> DrawAudit.main(rest);
+            case "export" -> export(rest);
+            case "import" -> summarize(rest);
+            case "exposure" -> ExposureCalculator.main(rest);
+            case "load" -> LoadTest.main(rest);
+            case "help", "-h", "--help" -> usage();
+            default -> {
+                System.err.println("unknown command: " + cmd);
+                usage();
+                System.exit(2);
+            }
+        }
+    }
+
+
+    // An explicit file is loaded and activated; otherwise the active schedule (-Dkeno.payouts or the default).
+    private static PaySchedule schedule(String[] args) throws Exception {
+        if (args.length == 0) return PayoutTable.active();
+        PaySchedule s = PayoutTable.load(Path.of(args[0]));
+        PayoutTable.activate(s.name());
+        return s;
+    }
+
+
+    private static void export(String[] args) throws Exception {
+        if (args.length < 2) { System.err.println("usage: export <journal> <out.kcol|out.csv>[.gz]"); System.exit(2); }
+        long t0 = System.nanoTime();
+        long rows = HistoryArchive.export(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("exported %,d rows in %.2f s%n", rows, (System.nanoTime() - t0) / 1e9);
+    }
+
+
+    private static void summarize(String[] args) throws Exception {
+        if (args.length < 1) { System.err.println("usage: import <export-file>"); System.exit(2); }
+        StatsTracker stats = StatsTracker.streaming(1);
+        DrawAnalytics analytics = new DrawAnalytics(100);
+        long rows = HistoryArchive.importInto(Path.of(args[0]), stats, analytics);
+        System.out.printf("%,d rows: %,d draws, %,d settlements, total won %,d, RTP %.2f%%%n", rows,
+                analytics.draws(DrawAnalytics.Span.ALL_TIME), stats.count(), stats.totalWins(), stats.rtp() * 100);
+        System.out.println("hot:  " + Arrays.toString(analytics.hottest(10, DrawAnalytics.Span.ALL_TIME)));
+        System.out.println("cold: " + Arrays.toString(analytics.coldest(10, DrawAnalytics.Span.ALL_TIME)));
+    }
+
+
+    private static void usage() {
+        System.out.println("""
+                usage: keno <command> [args]
+                  odds [schedule-file]          odds, EV and RTP per spot count
+                  payouts [schedule-file]       the payout schedule
+                  simulate [draws] [seed]       Monte Carlo RTP check for every spot count
+                  server [port] [intervalMs]    line-protocol multiplayer server on loopback
+                  audit <journal> [seed]        re-derive journaled draws from the seed (default: the journal's)
+                  export <journal> <out>        columnar (.kcol) or .csv history export, .gz to compress
+                  import <file>                 stream an export into stats and hot/cold analytics
+                  exposure [tickets] [samples]  payout exposure of a random open book
+                  load [key=value...]           simulated players, in-process or against a loopback server
+                                                (mode=in|server players rate tickets drawings quick interval seed)""");
+    }
+}
@@ -0,0 +1,313 @@
+package keno.load;
+
+
+import keno.logic.*;
+import keno.server.KenoServer;
+import keno.util.LatencyHistogram;
+import keno.util.Threads;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+
+// Load generator: simulated players arrive as a Poisson process, one task each (virtual threads where available).
+// Each player fills tickets by hand or quick pick, bets them on the next shared draws and settles every drawing.
+// IN_PROCESS drives BetCard, KenoGame and StatsTracker directly against a shared DrawingEngine; SERVER starts a
+// loopback KenoServer and plays its line protocol over sockets. Settlement latency runs from a draw's publication
+// to the player's settled result; bet latency is the time to fill and place a ticket (a BET round trip for SERVER).
+// A player's first bet is timed from its scheduled arrival, so time spent waiting for a thread is not hidden.
+// errors counts players that failed or had not finished by the deadline, plus results whose draw time was lost.
+public final class LoadTest {
+    public enum Mode { IN_PROCESS, SERVER }
+
+    // arrivalsPerSecond <= 0 starts every player at once.
+    public record Config(Mode mode, int players, double arrivalsPerSecond, int ticketsPerPlayer, int drawings,
+                         double quickPickShare, long drawIntervalMillis, long seed) {
+        public Config {
+            Objects.requireNonNull(mode);
+            if (players<1) throw new IllegalArgumentException("players");
+            if (ticketsPerPlayer<1) throw new IllegalArgumentException("ticketsPerPlayer");
+            if (drawings<1||drawings>KenoGame.MAX_DRAWINGS) throw new IllegalArgumentException("drawings");
+            if (quickPickShare<0||quickPickShare>1) throw new IllegalArgumentException("quickPickShare");
+            if (drawIntervalMillis<1) throw new IllegalArgumentException("drawIntervalMillis");
+        }
+
+        public static Config defaults() { return new Config(Mode.IN_PROCESS, 1000, 500, 5, 1, 0.5, 20, 1); }
+    }
+
+
+    public record Report(Config config, long tickets, long settlements, long draws, long errors, double seconds,
+                         LatencyHistogram settleLatency, LatencyHistogram betLatency) {
+        public double settlementsPerSecond() { return seconds == 0 ? 0 : settlements / seconds; }
+
+        public String summary() {
+            return String.format("%s: %,d players, %,d tickets, %,d settlements over %,d draws in %.2f s (%,.0f settlements/s), %d errors%n" +
+                            "  settle %s%n  bet    %s%n", config.mode(), config.players(), tickets, settlements, draws, seconds,
+                    settlementsPerSecond(), errors, settleLatency.summary(), betLatency.summary());
+        }
+    }
+
+
+    private static final int[] SPOTS = {1, 4, 8, 10};
+
+    private final Config config;
+    private final DrawFeed feed = new DrawFeed();
+    private final LatencyHistogram settleLatency = new LatencyHistogram(), betLatency = new LatencyHistogram();
+    private final LongAdder tickets = new LongAdder(), settlements = new LongAdder();
+    private final LongAdder finished = new LongAdder(), missedStamps = new LongAdder();
+    private final AtomicLong failures = new AtomicLong();
+    private final StatsTracker stats = StatsTracker.streaming(1024);
+    private volatile KenoServer server;
+
+
+    private LoadTest(Config config) { this.config = config; }
+
+
+    public static Report run(Config config) throws Exception { return new LoadTest(config).run(); }
+
+
+    private Report run() throws Exception {
+        ScheduledExecutorService drawTimer = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("keno-load-draw"));
+        ExecutorService players = Threads.perTaskExecutor("keno-player");
+        if (config.mode() == Mode.SERVER) server = new KenoServer(0, 0).start();
+        DrawingEngine engine = new DrawingEngine();
+        NumberMask drawn = new NumberMask();
+        CountDownLatch done = new CountDownLatch(config.players());
+        long t0 = System.nanoTime(), errors;
+        drawTimer.scheduleAtFixedRate(() -> draw(engine, drawn), config.drawIntervalMillis(), config.drawIntervalMillis(), TimeUnit.MILLISECONDS);
+        try {
+            RandomGenerator arrivals = new SplittableRandom(config.seed());
+            long next = System.nanoTime();
+            for (int i = 0; i < config.players(); i++) {
+                if (config.arrivalsPerSecond() > 0) {
+                    next += (long) (-Math.log(1 - arrivals.nextDouble()) / config.arrivalsPerSecond() * 1e9);
+                    for (long wait; (wait = next - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+                }
+                long id = i, arrival = config.arrivalsPerSecond() > 0 ? next : System.nanoTime();
+                players.execute(() -> {
+                    try { play(id, arrival); finished.increment(); }
+                    catch (Exception e) { if (failures.getAndIncrement() == 0) System.err.println("player " + id + " failed: " + e); }
+                    finally { done.countDown(); }
+                });
+            }
+            // every ticket waits for `drawings` draws plus the one it was placed in; allow 4x that before giving up
+            long budget = config.ticketsPerPlayer() * (config.drawings() + 1L) * config.drawIntervalMillis() * 4 + 10_000;
+            if (!done.await(budget, TimeUnit.MILLISECONDS)) System.err.println(done.getCount() + " players still running after " + budget + " ms");
+            errors = config.players() - finished.sum() + missedStamps.sum();
+        } finally {
+            drawTimer.shutdownNow();
+            feed.stop();
+            players.shutdownNow();
+            if (server != null) server.close();
+        }
+        return new Report(config, tickets.sum(), settlements.sum(), feed.latest(), errors, (System.nanoTime() - t0) / 1e9,
+                settleLatency, betLatency);
+    }
+
+
+    private void draw(DrawingEngine engine, NumberMask drawn) {
+        if (server != null) {
+            // stamp the draw before the server fans it out, so no RESULT can arrive ahead of its timestamp
+            feed.publish(server.drawCount() + 1, 0, 0, System.nanoTime());
+            server.drawNow();
+        } else {
+            engine.draw20(drawn);
+            feed.publish(feed.latest() + 1, drawn.lo(), drawn.hi(), System.nanoTime());
+        }
+    }
+
+
+    // arrival is when the player was due to start; the first bet is timed from it, later bets from their own start.
+    private void play(long id, long arrival) throws Exception {
+        RandomGenerator rng = new SplittableRandom(config.seed() * 0x9E3779B97F4A7C15L + id);
+        BetCard card = new BetCard(rng);
+        if (config.mode() == Mode.SERVER) {
+            try (Client c = new Client(server.port())) {
+                for (int t = 0; t < config.ticketsPerPlayer(); t++) playRemote(c, card, rng, t == 0 ? arrival : 0);
+                c.call("QUIT");
+            }
+        } else {
+            KenoGame game = new KenoGame();
+            NumberMask picks = new NumberMask(), drawn = new NumberMask();
+            for (int t = 0; t < config.ticketsPerPlayer(); t++) playLocal(game, card, rng, picks, drawn, t == 0 ? arrival : 0);
+        }
+    }
+
+
+    private void fill(BetCard card, RandomGenerator rng) {
+        card.setSpots(SPOTS[rng.nextInt(SPOTS.length)]);
+        if (rng.nextDouble() < config.quickPickShare()) { card.quickFill(); return; }
+        while (!card.isComplete()) {
+            int n = 1 + rng.nextInt(80);
+            if (!card.getPicks().contains(n)) card.togglePick(n);
+        }
+    }
+
+
+    private void playLocal(KenoGame game, BetCard card, RandomGenerator rng, NumberMask picks, NumberMask drawn, long due) throws InterruptedException {
+        long t0 = due != 0 ? due : System.nanoTime();
+        fill(card, rng);
+        game.configure(card.getSpots(), config.drawings());
+        picks.clear();
+        for (int n : card.getPicks()) picks.add(n);
+        game.start();
+        long seen = feed.latest();
+        betLatency.record(System.nanoTime() - t0);
+        tickets.increment();
+        while (game.hasNext()) {
+            long no = seen + 1;
+            if (!feed.await(no)) throw new IllegalStateException("draw feed stopped");
+            if (!feed.read(no, drawn)) throw new IllegalStateException("player fell behind the draw ring at draw " + no);
+            seen = no;
+            NumberMask hits = new NumberMask(picks.lo() & drawn.lo(), picks.hi() & drawn.hi());
+            int win = game.settle(picks, drawn);
+            stats.record(game.getSpots(), new MatchResult(game.getCurrentDraw(), hits.toSet(), hits.size(), win));
+            settled(no);
+        }
+    }
+
+
+    private void playRemote(Client c, BetCard card, RandomGenerator rng, long due) throws IOException {
+        fill(card, rng);
+        StringBuilder pick = new StringBuilder("PICK");
+        for (int n : card.getPicks()) pick.append(' ').append(n);
+        c.expect(c.call("SPOTS " + card.getSpots()), "OK SPOTS");
+        c.expect(c.call(pick.toString()), "OK PICKS");
+        long t0 = due != 0 ? due : System.nanoTime();
+        c.expect(c.call("BET " + config.drawings()), "OK BET");
+        betLatency.record(System.nanoTime() - t0);
+        tickets.increment();
+        for (String line; (line = c.in.readLine()) != null; ) {
+            if (line.startsWith("RESULT ")) {
+                settled(Long.parseLong(line.substring(7, line.indexOf(' ', 7))));
+            } else if (line.startsWith("DONE ")) {
+                return;
+            }
+        }
+        throw new EOFException("server closed the session");
+    }
+
+
+    // A draw that has left the ring has no publication time; its result counts as an error rather than 0 latency.
+    private void settled(long no) {
+        long at = feed.publishedAt(no);
+        if (at != DrawFeed.UNKNOWN) settleLatency.record(System.nanoTime() - at);
+        else missedStamps.increment();
+        settlements.increment();
+    }
+
+
+    private static final class Client implements Closeable {
+        final Socket socket; final BufferedReader in; final Writer out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+        }
+
+        // Sends a command and returns its reply, skipping DRAW events pushed to idle sessions.
+        String call(String cmd) throws IOException {
+            out.write(cmd);
+            out.write('\n');
+            out.flush();
+            for (String line; (line = in.readLine()) != null; ) if (!line.startsWith("DRAW ")) return line;
+            throw new EOFException("server closed the session");
+        }
+
+        void expect(String reply, String prefix) throws IOException {
+            if (!reply.startsWith(prefix)) throw new IOException("unexpected reply: " + reply);
+        }
+
+        @Override public void close() throws IOException { socket.close(); }
+    }
+
+
+    // The last RING shared draws with their publication times, read lock-free. Waiters park on the latch of the
+    // next draw; publishing releases it and installs a fresh one, so thousands of players wake without a lock convoy.
+    private static final class DrawFeed {
+        private static final int RING = 256;
+        static final long UNKNOWN = Long.MIN_VALUE;
+        private record Draw(long no, long lo, long hi, long at) {}
+        private final AtomicReferenceArray<Draw> ring = new AtomicReferenceArray<>(RING);
+        private volatile CountDownLatch next = new CountDownLatch(1);
+        private volatile long latest;
+        private volatile boolean stopped;
+
+
+        // Only the draw timer publishes.
+        void publish(long n, long l, long h, long t) {
+            ring.set((int) (n % RING), new Draw(n, l, h, t));
+            latest = n;
+            CountDownLatch released = next;
+            next = new CountDownLatch(1);
+            released.countDown();
+        }
+
+
+        long latest() { return latest; }
+
+
+        boolean await(long n) throws InterruptedException {
+            while (true) {
+                CountDownLatch l = next;
+                if (latest >= n) return true;
+                if (stopped) return false;
+                l.await();
+            }
+        }
+
+
+        boolean read(long n, NumberMask out) {
+            Draw d = ring.get((int) (n % RING));
+            if (d == null || d.no() != n) return false;
+            out.set(d.lo(), d.hi());
+            return true;
+        }
+
+
+        long publishedAt(long n) {
+            Draw d = ring.get((int) (n % RING));
+            return d != null && d.no() == n ? d.at() : UNKNOWN;
+        }
+
+
+        void stop() {
+            stopped = true;
+            next.countDown();
+        }
+    }
+
+
+    // java keno.load.LoadTest [mode=in|server] [players=1000] [rate=500] [tickets=5] [drawings=1] [quick=0.5] [interval=20] [seed=1]
+    public static void main(String[] args) throws Exception {
+        Config d = Config.defaults();
+        Map<String, String> a = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("expected key=value: " + arg);
+            a.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Config c = new Config(
+                "server".equalsIgnoreCase(a.getOrDefault("mode", "in")) ? Mode.SERVER : Mode.IN_PROCESS,
+                Integer.parseInt(a.getOrDefault("players", "" + d.players())),
+                Double.parseDouble(a.getOrDefault("rate", "" + d.arrivalsPerSecond())),
+                Integer.parseInt(a.getOrDefault("tickets", "" + d.ticketsPerPlayer())),
+                Integer.parseInt(a.getOrDefault("drawings", "" + d.drawings())),
+                Double.parseDouble(a.getOrDefault("quick", "" + d.quickPickShare())),
+                Long.parseLong(a.getOrDefault("interval", "" + d.drawIntervalMillis())),
+                Long.parseLong(a.getOrDefault("seed", "" + d.seed())));
+        System.out.printf("%s players on %s threads%n", c.players(), Threads.virtualThreadsAvailable() ? "virtual" : "platform");
+        System.out.print(run(c).summary());
+    }
+}
@@ -0,0 +1,117 @@
+package keno.logic;
+
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// Player balances in long cents, in a fixed-capacity open-addressed table of primitive (id, balance) slots with
+// linear probing. Accounts are claimed with a CAS on the key slot and balances move with per-slot CAS, so there
+// is no lock at all: operations on different accounts never contend and each account's updates are atomic.
+// Capacity is fixed up front (size it for the expected accounts at most 3/4 full); accounts are never removed.
+public class BankrollLedger {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long EMPTY = 0;
+
+    private final long[] keys, balances;
+    private final int mask, maxAccounts;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder debited = new LongAdder(), credited = new LongAdder(), refunded = new LongAdder();
+
+
+    public BankrollLedger(int maxAccounts) {
+        if (maxAccounts<1||maxAccounts>(1<<29)) throw new IllegalArgumentException("maxAccounts");
+        int cap = Integer.highestOneBit(maxAccounts + maxAccounts / 3) << 1;
+        this.keys = new long[cap];
+        this.balances = new long[cap];
+        this.mask = cap - 1;
+        this.maxAccounts = maxAccounts;
+    }
+
+
+    // Creates the account with a zero balance; false if it already exists. Id 0 is reserved.
+    public boolean open(long accountId) {
+        if (accountId == EMPTY) throw new IllegalArgumentException("accountId");
+        for (int i = home(accountId);; i = (i + 1) & mask) {
+            long k = (long) SLOT.getAcquire(keys, i);
+            if (k == accountId) return false;
+            if (k != EMPTY) continue;
+            if (size.incrementAndGet() > maxAccounts) { size.decrementAndGet(); throw new IllegalStateException("ledger full"); }
+            if (SLOT.compareAndSet(keys, i, EMPTY, accountId)) return true;
+            size.decrementAndGet();
+            if ((long) SLOT.getAcquire(keys, i) == accountId) return false;
+        }
+    }
+
+
+    public boolean exists(long accountId) { return slot(accountId) >= 0; }
+
+
+    public long balance(long accountId) { return (long) SLOT.getVolatile(balances, require(accountId)); }
+
+
+    public void credit(long accountId, long cents) {
+        if (cents<0) throw new IllegalArgumentException("cents");
+        SLOT.getAndAdd(balances, require(accountId), cents);
+        credited.add(cents);
+    }
+
+
+    // Returns a debit that did not play (a dropped round, a rejected ticket); counted apart from credits.
+    public void refund(long accountId, long cents) {
+        if (cents<0) throw new IllegalArgumentException("cents");
+        SLOT.getAndAdd(balances, require(accountId), cents);
+        refunded.add(cents);
+    }
+
+
+    // Takes cents from the account unless that would overdraw it; false (and no change) when the balance is short.
+    public boolean debit(long accountId, long cents) {
+        if (cents<0) throw new IllegalArgumentException("cents");
+        int i = require(accountId);
+        long b;
+        do {
+            b = (long) SLOT.getVolatile(balances, i);
+            if (b < cents) return false;
+        } while (!SLOT.compareAndSet(balances, i, b, b - cents));
+        debited.add(cents);
+        return true;
+    }
+
+
+    public int size() { return size.get(); }
+    public int maxAccounts() { return maxAccounts; }
+    public long totalDebited() { return debited.sum(); }
+    public long totalCredited() { return credited.sum(); }
+    public long totalRefunded() { return refunded.sum(); }
+
+
+    // Sum of all balances; exact only when no updates are in flight.
+    public long totalBalance() {
+        long t = 0;
+        for (int i=0;i<balances.length;i++) t += (long) SLOT.getVolatile(balances, i);
+        return t;
+    }
+
+
+    private int home(long id) { return (int) CounterRng.mix64(id) & mask; }
+
+
+    private int slot(long id) {
+        if (id == EMPTY) return -1;
+        for (int i = home(id);; i = (i + 1) & mask) {
+            long k = (long) SLOT.getAcquire(keys, i);
+            if (k == id) return i;
+            if (k == EMPTY) return -1;
+        }
+    }
+
+
+    private int require(long id) {
+        int i = slot(id);
+        if (i < 0) throw new IllegalArgumentException("unknown account " + id);
+        return i;
+    }
+}
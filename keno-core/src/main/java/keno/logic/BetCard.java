@@ -2,12 +2,18 @@ package keno.logic;
 
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 
 public class BetCard {
     private int spots = 0;
     private final Set<Integer> picks = new TreeSet<>();
-    private final Random rnd = new Random();
+    private final RandomGenerator rng;
+
+
+    public BetCard() { this(RngStrategy.SPLITTABLE); }
+    public BetCard(RngStrategy strategy) { this(strategy.create()); }
+    public BetCard(RandomGenerator rng) { this.rng = Objects.requireNonNull(rng); }
 
 
     public void setSpots(int s) {
@@ -26,9 +32,13 @@ public class BetCard {
 
     public void quickFill() {
         if (spots==0) return;
-        while (picks.size()<spots) {
-            picks.add(1 + rnd.nextInt(80));
-        }
+        // one combinadic rank over the numbers not yet picked picks every missing number at once
+        int[] pool = new int[80], chosen = new int[spots];
+        int m = 0;
+        for (int n=1;n<=80;n++) if (!picks.contains(n)) pool[m++] = n;
+        int need = spots - picks.size();
+        Combinations.unrank(rng.nextLong(Combinations.choose(m, need)), m, need, chosen);
+        for (int i=0;i<need;i++) picks.add(pool[chosen[i]]);
     }
 
 
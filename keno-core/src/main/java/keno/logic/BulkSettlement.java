@@ -0,0 +1,80 @@
+package keno.logic;
+
+
+import java.util.concurrent.*;
+
+
+// Settles a whole TicketBook against one draw in parallel. Unlike KenoGame.computeResult this has no side
+// effects on game state; payouts are prize × wager in cents. Each settle() call is counted once in KenoMetrics.
+public class BulkSettlement {
+    private static final int LEAF = 1 << 15;
+
+    public record Summary(int tickets, int winners, long wagered, long liability) {}
+
+
+    private final ForkJoinPool pool;
+    private final KenoMetrics metrics;
+
+
+    public BulkSettlement() { this(ForkJoinPool.commonPool()); }
+    public BulkSettlement(ForkJoinPool pool) { this(pool, KenoMetrics.get()); }
+    public BulkSettlement(ForkJoinPool pool, KenoMetrics metrics) { this.pool = pool; this.metrics = metrics; }
+
+
+    public Summary settle(TicketBook book, NumberMask drawn, long[] payouts) {
+        return settle(book, drawn, PayoutTable.active(), payouts);
+    }
+
+
+    // payouts[i] receives ticket i's payout; it must hold at least book.size() entries.
+    public Summary settle(TicketBook book, NumberMask drawn, PaySchedule schedule, long[] payouts) {
+        if (payouts.length < book.size()) throw new IllegalArgumentException("payouts");
+        long t0 = metrics.start();
+        Task t = new Task(book, drawn.lo(), drawn.hi(), schedule, payouts, 0, book.size());
+        Summary s = book.size() <= LEAF ? t.compute() : pool.invoke(t);
+        metrics.settled(s.tickets(), s.wagered(), s.liability(), t0);
+        return s;
+    }
+
+
+    // The settlement kernel, also used by the parallel tasks: no allocation, one popcount pair and one prize read per ticket.
+    static Summary settleRange(TicketBook book, long dLo, long dHi, PaySchedule schedule, long[] payouts, int from, int to) {
+        long[] lo = book.loColumn(), hi = book.hiColumn(), wager = book.wagerColumn();
+        byte[] spots = book.spotsColumn();
+        long wagered = 0, liability = 0;
+        int winners = 0;
+        for (int i=from;i<to;i++) {
+            int k = NumberMask.hits(lo[i], hi[i], dLo, dHi);
+            long pay = wager[i] * schedule.prize(spots[i], k);
+            payouts[i] = pay;
+            wagered += wager[i];
+            liability += pay;
+            if (pay > 0) winners++;
+        }
+        return new Summary(to - from, winners, wagered, liability);
+    }
+
+
+    @SuppressWarnings("serial")      // fork/join tasks are never serialized
+    private static final class Task extends RecursiveTask<Summary> {
+        private final TicketBook book; private final long dLo, dHi; private final PaySchedule schedule;
+        private final long[] payouts; private final int from, to;
+
+
+        Task(TicketBook book, long dLo, long dHi, PaySchedule schedule, long[] payouts, int from, int to) {
+            this.book = book; this.dLo = dLo; this.dHi = dHi; this.schedule = schedule; this.payouts = payouts; this.from = from; this.to = to;
+        }
+
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= LEAF) return settleRange(book, dLo, dHi, schedule, payouts, from, to);
+            int mid = (from + to) >>> 1;
+            Task left = new Task(book, dLo, dHi, schedule, payouts, from, mid);
+            left.fork();
+            Summary r = new Task(book, dLo, dHi, schedule, payouts, mid, to).compute();
+            Summary l = left.join();
+            return new Summary(l.tickets + r.tickets, l.winners + r.winners, l.wagered + r.wagered, l.liability + r.liability);
+        }
+    }
+}
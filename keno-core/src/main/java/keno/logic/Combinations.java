@@ -0,0 +1,171 @@
+package keno.logic;
+
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+
+// Combinadic indexing of k-subsets of 1..80 (k <= 10, so every count fits in a long). Rank r maps to the
+// r-th subset in colex order, which lets a single random long become a quick pick with no retries.
+public final class Combinations {
+    public static final int N = 80, MAX_K = 10;
+    private static final long[][] C = new long[N + 1][MAX_K + 1];
+    static {
+        for (int n=0;n<=N;n++) {
+            C[n][0] = 1;
+            for (int k=1;k<=Math.min(n, MAX_K);k++) C[n][k] = C[n - 1][k - 1] + (k <= n - 1 ? C[n - 1][k] : 0);
+        }
+    }
+
+
+    @FunctionalInterface
+    public interface MaskConsumer { void accept(long lo, long hi); }
+
+
+    private Combinations() {}
+
+
+    public static long choose(int n, int k) {
+        if (n<0||n>N||k<0||k>MAX_K||k>n) return 0;
+        return C[n][k];
+    }
+
+
+    public static long count(int k) { checkK(k); return C[N][k]; }
+
+
+    // Writes the 0-based elements of subset `rank` of {0..n-1}, ascending, into out[0..k).
+    static void unrank(long rank, int n, int k, int[] out) {
+        for (int i=k;i>=1;i--) {
+            n = largestBelow(rank, i, n);
+            out[i - 1] = n;
+            rank -= C[n][i];
+        }
+    }
+
+
+    public static void unrank(long rank, int k, NumberMask out) {
+        checkK(k);
+        if (rank<0||rank>=C[N][k]) throw new IllegalArgumentException("rank");
+        long lo = 0, hi = 0;
+        for (int i=k, n=N;i>=1;i--) {
+            n = largestBelow(rank, i, n);
+            rank -= C[n][i];
+            if (n < 64) lo |= 1L << n; else hi |= 1L << (n - 64);
+        }
+        out.set(lo, hi);
+    }
+
+
+    // Largest c < n with C(c, i) <= rank; binary search over the monotone column.
+    private static int largestBelow(long rank, int i, int n) {
+        int lo = i - 1, hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (C[mid][i] <= rank) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+
+    public static long rank(NumberMask m) { return rank(m.lo(), m.hi()); }
+
+
+    public static long rank(long lo, long hi) {
+        long r = 0;
+        int i = 1;
+        while (lo != 0) { r += C[Long.numberOfTrailingZeros(lo)][i++]; lo &= lo - 1; }
+        while (hi != 0) { r += C[Long.numberOfTrailingZeros(hi) + 64][i++]; hi &= hi - 1; }
+        return r;
+    }
+
+
+    // Uniform random k-subset from one bounded random long.
+    public static void quickPick(int k, RandomGenerator rng, NumberMask out) {
+        unrank(rng.nextLong(count(k)), k, out);
+    }
+
+
+    // Adds `count` distinct uniformly chosen k-spot tickets to the book.
+    public static void quickPicks(int k, int count, long wagerCents, RandomGenerator rng, TicketBook book) {
+        long total = count(k);
+        if (count<0||count>total) throw new IllegalArgumentException("count");
+        if ((long) count * 2 <= total && count > LongSet.MAX_EXPECTED)
+            throw new IllegalArgumentException("count: at most " + LongSet.MAX_EXPECTED + " sparse quick picks per call, got " + count);
+        NumberMask m = new NumberMask();
+        if ((long) count * 2 <= total) {
+            // sparse: draw ranks and reject the rare repeat with a primitive set
+            LongSet seen = new LongSet(count);
+            while (count > 0) {
+                long r = rng.nextLong(total);
+                if (!seen.add(r)) continue;
+                unrank(r, k, m);
+                book.add(m, wagerCents);
+                count--;
+            }
+        } else {
+            // dense: selection sampling (Knuth's algorithm S) walks every rank once
+            for (long r = 0; count > 0; r++) {
+                if (rng.nextLong(total - r) < count) {
+                    unrank(r, k, m);
+                    book.add(m, wagerCents);
+                    count--;
+                }
+            }
+        }
+    }
+
+
+    // Streams every k-subset of 1..80 in lexicographic order; meant for small k (C(80,4) is 1.58M, C(80,6) 300M).
+    public static void forEach(int k, MaskConsumer c) {
+        checkK(k);
+        if (k == 0) { c.accept(0, 0); return; }
+        int[] p = new int[k];
+        for (int i=0;i<k;i++) p[i] = i;
+        while (true) {
+            long lo = 0, hi = 0;
+            for (int e : p) if (e < 64) lo |= 1L << e; else hi |= 1L << (e - 64);
+            c.accept(lo, hi);
+            int i = k - 1;
+            while (i >= 0 && p[i] == N - k + i) i--;
+            if (i < 0) return;
+            p[i]++;
+            for (int j=i+1;j<k;j++) p[j] = p[j - 1] + 1;
+        }
+    }
+
+
+    private static void checkK(int k) { if (k<0||k>MAX_K) throw new IllegalArgumentException("k"); }
+
+
+    // Open-addressed set of non-negative longs, sized up front to at most half full.
+    private static final class LongSet {
+        static final int MAX_SLOTS = 1 << 30;           // largest power-of-two long[] the VM can allocate
+        static final int MAX_EXPECTED = MAX_SLOTS / 2;
+
+        private final long[] slots;
+        private final int mask;
+
+
+        LongSet(int expected) {
+            if (expected > MAX_EXPECTED)
+                throw new IllegalArgumentException("at most " + MAX_EXPECTED + " distinct values, got " + expected);
+            long cap = Long.highestOneBit(Math.max(16L, expected * 2L - 1)) << 1;
+            cap = Math.min(cap, MAX_SLOTS);
+            slots = new long[(int) cap];
+            Arrays.fill(slots, -1L);
+            mask = (int) cap - 1;
+        }
+
+
+        boolean add(long v) {
+            int i = (int) CounterRng.mix64(v) & mask;
+            while (slots[i] != -1L) {
+                if (slots[i] == v) return false;
+                i = (i + 1) & mask;
+            }
+            slots[i] = v;
+            return true;
+        }
+    }
+}
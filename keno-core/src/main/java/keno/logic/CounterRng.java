@@ -0,0 +1,41 @@
+package keno.logic;
+
+
+import java.util.random.RandomGenerator;
+
+
+// Counter-based generator: the i-th value of stream s is a pure function of (seed, s, i), so any stream can be
+// jumped to in O(1). Each stream is a SplitMix64 sequence whose starting state is a hash of (seed, stream).
+public final class CounterRng implements RandomGenerator {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long stream, state;
+
+
+    public CounterRng(long seed) { this.seed = seed; seek(0); }
+
+
+    public long seed() { return seed; }
+    public long stream() { return stream; }
+
+
+    // Restarts the generator at the first value of the given stream.
+    public void seek(long stream) {
+        this.stream = stream;
+        this.state = mix64(seed ^ mix64(stream * GOLDEN + 0x632BE59BD9B4E019L));
+    }
+
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN);
+    }
+
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
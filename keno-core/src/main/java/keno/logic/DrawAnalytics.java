@@ -0,0 +1,103 @@
+package keno.logic;
+
+
+import java.util.*;
+
+
+// Hot/cold numbers and pair co-occurrence, maintained incrementally from draws (attach with
+// DrawingEngine.addListener). Each draw costs O(20²) for the all-time counts and the same again for the
+// sliding window of the last windowSize draws, whose oldest draw is subtracted back out when it falls off.
+public class DrawAnalytics implements DrawListener {
+    public enum Span { ALL_TIME, WINDOW }
+    public record Pair(int a, int b, long count) {}
+
+
+    private final int windowSize;
+    private final long[] freq = new long[81], pairs = new long[81 * 81];
+    private final long[] winFreq = new long[81], winPairs = new long[81 * 81];
+    private final long[] ringLo, ringHi;
+    private final int[] scratch = new int[20];
+    private long draws;
+    private int ringHead, ringCount;
+
+
+    public DrawAnalytics(int windowSize) {
+        if (windowSize<1) throw new IllegalArgumentException("windowSize");
+        this.windowSize = windowSize;
+        ringLo = new long[windowSize]; ringHi = new long[windowSize];
+    }
+
+
+    @Override
+    public synchronized void onDraw(long lo, long hi) {
+        int n = unpack(lo, hi);
+        add(freq, pairs, n, 1);
+        if (ringCount == windowSize) {
+            add(winFreq, winPairs, unpack(ringLo[ringHead], ringHi[ringHead]), -1);
+            n = unpack(lo, hi);
+        } else ringCount++;
+        add(winFreq, winPairs, n, 1);
+        ringLo[ringHead] = lo; ringHi[ringHead] = hi;
+        ringHead = (ringHead + 1) % windowSize;
+        draws++;
+    }
+
+
+    private int unpack(long lo, long hi) {
+        int n = 0;
+        while (lo != 0 && n < 20) { scratch[n++] = Long.numberOfTrailingZeros(lo) + 1; lo &= lo - 1; }
+        while (hi != 0 && n < 20) { scratch[n++] = Long.numberOfTrailingZeros(hi) + 65; hi &= hi - 1; }
+        return n;
+    }
+
+
+    // scratch holds the numbers in ascending order, so (a, b) with a < b indexes the upper triangle
+    private void add(long[] f, long[] p, int n, int delta) {
+        for (int i=0;i<n;i++) {
+            int a = scratch[i];
+            f[a] += delta;
+            for (int j=i+1;j<n;j++) p[a * 81 + scratch[j]] += delta;
+        }
+    }
+
+
+    public synchronized long draws(Span span) { return span == Span.ALL_TIME ? draws : ringCount; }
+    public synchronized long frequency(int n, Span span) { return n<1||n>80 ? 0 : (span == Span.ALL_TIME ? freq : winFreq)[n]; }
+
+
+    public synchronized long pairCount(int a, int b, Span span) {
+        if (a<1||a>80||b<1||b>80||a==b) return 0;
+        return (span == Span.ALL_TIME ? pairs : winPairs)[Math.min(a, b) * 81 + Math.max(a, b)];
+    }
+
+
+    public int[] hottest(int k, Span span) { return ranked(k, span, true); }
+    public int[] coldest(int k, Span span) { return ranked(k, span, false); }
+
+
+    private synchronized int[] ranked(int k, Span span, boolean hot) {
+        long[] f = span == Span.ALL_TIME ? freq : winFreq;
+        Integer[] nums = new Integer[80];
+        for (int i=0;i<80;i++) nums[i] = i + 1;
+        Comparator<Integer> byCount = Comparator.comparingLong(n -> f[n]);
+        Arrays.sort(nums, (hot ? byCount.reversed() : byCount).thenComparingInt(n -> n));
+        return Arrays.stream(nums, 0, Math.min(Math.max(k, 0), 80)).mapToInt(Integer::intValue).toArray();
+    }
+
+
+    // Most frequent co-drawn pairs, highest count first.
+    public synchronized List<Pair> topPairs(int k, Span span) {
+        long[] p = span == Span.ALL_TIME ? pairs : winPairs;
+        Comparator<Pair> order = Comparator.comparingLong(Pair::count).thenComparingInt(x -> -x.a()).thenComparingInt(x -> -x.b());
+        PriorityQueue<Pair> top = new PriorityQueue<>(order);
+        for (int a=1;a<=80;a++)
+            for (int b=a+1;b<=80;b++) {
+                long c = p[a * 81 + b];
+                if (top.size() < k) top.add(new Pair(a, b, c));
+                else if (k > 0 && c > top.peek().count()) { top.poll(); top.add(new Pair(a, b, c)); }
+            }
+        List<Pair> out = new ArrayList<>(top);
+        out.sort(order.reversed());
+        return out;
+    }
+}
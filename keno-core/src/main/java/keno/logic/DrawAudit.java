@@ -0,0 +1,118 @@
+package keno.logic;
+
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+
+// Re-derives journaled draws from a counter-based seed and checks them, a block at a time in parallel,
+// so arbitrarily long journals are audited in bounded memory. Journal draw numbers are the draw indexes.
+public class DrawAudit {
+    private static final int BLOCK = 1 << 20, MAX_REPORTED = 100;
+
+    public record Result(long checked, long mismatches, List<Long> firstMismatches) {
+        public boolean ok() { return mismatches == 0; }
+    }
+
+
+    private final long seed;
+    private final long[] index = new long[BLOCK], lo = new long[BLOCK], hi = new long[BLOCK];
+    private final AtomicLong mismatches = new AtomicLong();
+    private final PriorityQueue<Long> reported = new PriorityQueue<>(Comparator.reverseOrder()); // smallest so far, largest on top
+    private long checked;
+    private int n;
+
+
+    private DrawAudit(long seed) { this.seed = seed; }
+
+
+    // Audits a seeded journal against the seed in its own header.
+    public static Result audit(Path journal) throws IOException {
+        OptionalLong seed = DrawJournal.seedOf(journal);
+        if (seed.isEmpty()) throw new IOException("journal " + journal + " has no seed; pass the seed explicitly");
+        return audit(seed.getAsLong(), journal);
+    }
+
+
+    public static Result audit(long seed, Path journal) throws IOException {
+        DrawAudit a = new DrawAudit(seed);
+        DrawJournal.replay(journal, new DrawJournal.Visitor() {
+            @Override public void onDraw(long drawNo, long l, long h) { a.add(drawNo, l, h); }
+        });
+        return a.finish();
+    }
+
+
+    // Checks draws [from, to) of `seed` against expected masks supplied by the caller.
+    public static Result verify(long seed, long from, long to, ExpectedDraws expected) {
+        DrawAudit a = new DrawAudit(seed);
+        NumberMask m = new NumberMask();
+        for (long i = from; i < to; i++) {
+            expected.get(i, m);
+            a.add(i, m.lo(), m.hi());
+        }
+        return a.finish();
+    }
+
+
+    @FunctionalInterface
+    public interface ExpectedDraws { void get(long index, NumberMask out); }
+
+
+    private void add(long drawNo, long l, long h) {
+        index[n] = drawNo; lo[n] = l; hi[n] = h;
+        if (++n == BLOCK) checkBlock();
+    }
+
+
+    private void checkBlock() {
+        int count = n;
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), count / 4096 + 1));
+        int per = (count + workers - 1) / workers;
+        List<PriorityQueue<Long>> found = IntStream.range(0, workers).parallel().mapToObj(w -> {
+            // each worker derives its own slice with a private engine and keeps its own lowest mismatches
+            DrawingEngine e = DrawingEngine.counterBased(seed);
+            NumberMask m = new NumberMask();
+            PriorityQueue<Long> lowest = new PriorityQueue<>(Comparator.reverseOrder());
+            for (int i = w * per, end = Math.min(count, i + per); i < end; i++) {
+                e.drawAt(index[i], m);
+                if (m.lo() != lo[i] || m.hi() != hi[i]) {
+                    mismatches.incrementAndGet();
+                    keepLowest(lowest, index[i]);
+                }
+            }
+            return lowest;
+        }).toList();
+        for (PriorityQueue<Long> q : found) for (long i : q) keepLowest(reported, i);
+        checked += count;
+        n = 0;
+    }
+
+
+    private static void keepLowest(PriorityQueue<Long> q, long index) {
+        if (q.size() < MAX_REPORTED) q.add(index);
+        else if (index < q.peek()) { q.poll(); q.add(index); }
+    }
+
+
+    private Result finish() {
+        if (n > 0) checkBlock();
+        List<Long> first = new ArrayList<>(reported);
+        Collections.sort(first);
+        return new Result(checked, mismatches.get(), first);
+    }
+
+
+    // java keno.logic.DrawAudit <journal> [seed]; without a seed, the one in the journal's header
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) { System.err.println("usage: DrawAudit <journal> [seed]"); System.exit(2); }
+        long t0 = System.nanoTime();
+        Result r = args.length > 1 ? audit(Long.parseLong(args[1]), Path.of(args[0])) : audit(Path.of(args[0]));
+        System.out.printf("checked %,d draws in %.2f s: %s%n", r.checked(), (System.nanoTime() - t0) / 1e9,
+                r.ok() ? "all match" : r.mismatches() + " mismatches, first " + r.firstMismatches());
+        if (!r.ok()) System.exit(1);
+    }
+}
@@ -0,0 +1,268 @@
+package keno.logic;
+
+
+import keno.util.Threads;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.SecureRandom;
+import java.util.OptionalLong;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
+
+
+// Append-only binary journal of draws and settlements, written through a memory-mapped FileChannel.
+// Appends are plain stores into the mapping; durability comes from a group-commit thread that forces the
+// mapping every syncIntervalMillis (or sync() on demand). The mapping grows the file REGION bytes at a time and
+// close() trims the unused tail.
+//
+// Layout: 64-byte header (magic, version, record size, int flags, long seed, zero padding), then fixed 64-byte
+// little-endian records:
+//   int type | int info | long draw | long lo | long hi | long win | long runningTotal | long seq | int crc | int 0
+// DRAW records carry the drawn mask in lo/hi; SETTLE records carry the hit mask, info = spots << 8 | k.
+// seq is the record's position in the journal and crc the CRC32C of the bytes before it. The OS writes dirty pages
+// back in any order, so after a crash the tail can hold half-written records; replay ends at the first record
+// whose seq or crc does not match, and open() cuts the file there so stale records behind it are never revived.
+// A seeded journal (openSeeded) holds the draws of a counter-based engine under the engine's own draw indexes,
+// with the seed in the header, so DrawAudit can re-derive every journaled draw from the file alone.
+public class DrawJournal implements Closeable {
+    public static final int DRAW = 1, SETTLE = 2;
+    static final long MAGIC = 0x314E524A4F4E454BL; // "KENOJRN1"
+    static final int VERSION = 2, HEADER = 64, RECORD = 64, CRC = 56, SEEDED = 1;
+    private static final long REGION = 1L << 20;
+    private static final long SCAN = 64L << 20; // replay window, a whole number of records
+
+
+    public interface Visitor {
+        default void onDraw(long drawNo, long lo, long hi) {}
+        default void onSettlement(long drawIndex, int spots, int k, long hitLo, long hitHi, long win, long runningTotal) {}
+    }
+
+
+    private final FileChannel channel;
+    private final ScheduledExecutorService syncer;
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private final OptionalLong seed;
+    private MappedByteBuffer map;
+    private long mapStart, position, runningTotal, records, nextDrawNo;
+    private volatile boolean dirty;
+
+
+    private DrawJournal(FileChannel channel, OptionalLong seed, long[] tail, long syncIntervalMillis) throws IOException {
+        this.channel = channel;
+        this.seed = seed;
+        this.position = tail[0];
+        this.runningTotal = tail[1];
+        this.records = tail[2];
+        this.nextDrawNo = tail[3];
+        remap(position);
+        if (syncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("keno-journal-sync"));
+            syncer.scheduleWithFixedDelay(this::groupCommit, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else syncer = null;
+    }
+
+
+    public static DrawJournal open(Path file) throws IOException { return open(file, 10); }
+
+
+    // Opens (or creates) a journal and positions after its last intact record, dropping anything behind it.
+    public static DrawJournal open(Path file, long syncIntervalMillis) throws IOException {
+        return open(file, syncIntervalMillis, OptionalLong.empty(), false);
+    }
+
+
+    // Opens (or creates) a seeded journal for a counter-based engine; draw from engine() to continue it. A journal
+    // that already has a seed keeps it, and `seed`, when given, must match it. A new or still empty journal takes
+    // `seed`, or a fresh random one. IOException for a journal that already holds records but no seed.
+    public static DrawJournal openSeeded(Path file, long syncIntervalMillis, OptionalLong seed) throws IOException {
+        return open(file, syncIntervalMillis, seed, true);
+    }
+
+
+    private static DrawJournal open(Path file, long syncIntervalMillis, OptionalLong wanted, boolean seeded) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long[] tail = {HEADER, 0, 0, 0}; // position, running total, records, next draw number
+            OptionalLong seed = OptionalLong.empty();
+            if (ch.size() > 0) {
+                seed = seedOf(ch);
+                scan(ch, new Visitor() {
+                    @Override public void onDraw(long drawNo, long lo, long hi) { tail[0] += RECORD; tail[2]++; tail[3] = Math.max(tail[3], drawNo + 1); }
+                    @Override public void onSettlement(long d, int s, int k, long l, long h, long w, long total) { tail[0] += RECORD; tail[1] = total; tail[2]++; }
+                });
+                if (ch.size() > tail[0]) ch.truncate(tail[0]);
+            }
+            if (seeded && seed.isPresent() && wanted.isPresent() && seed.getAsLong() != wanted.getAsLong())
+                throw new IOException("journal " + file + " was written with seed " + seed.getAsLong() + ", not " + wanted.getAsLong());
+            if (seeded && seed.isEmpty()) {
+                if (tail[2] > 0) throw new IOException("journal " + file + " has records but no seed, so its draws cannot be audited");
+                seed = OptionalLong.of(wanted.orElseGet(() -> new SecureRandom().nextLong()));
+            }
+            if (ch.size() == 0 || seeded) writeHeader(ch, seed);
+            return new DrawJournal(ch, seed, tail, syncIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+
+    private static void writeHeader(FileChannel ch, OptionalLong seed) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        h.putLong(MAGIC).putInt(VERSION).putInt(RECORD).putInt(seed.isPresent() ? SEEDED : 0).putInt(0).putLong(seed.orElse(0)).clear();
+        ch.write(h, 0);
+    }
+
+
+    // The seed in a journal's header, empty for an unseeded journal.
+    public static OptionalLong seedOf(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) { return seedOf(ch); }
+    }
+
+
+    private static OptionalLong seedOf(FileChannel ch) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        ch.read(h, 0);
+        if (h.position() < HEADER || h.getLong(0) != MAGIC || h.getInt(12) != RECORD) throw new IOException("not a keno journal");
+        return (h.getInt(16) & SEEDED) != 0 ? OptionalLong.of(h.getLong(24)) : OptionalLong.empty();
+    }
+
+
+    public synchronized void appendDraw(long drawNo, NumberMask drawn) throws IOException {
+        append(DRAW, 0, drawNo, drawn.lo(), drawn.hi(), 0);
+        nextDrawNo = Math.max(nextDrawNo, drawNo + 1);
+    }
+
+
+    public synchronized void appendSettlement(long drawIndex, int spots, int k, NumberMask hits, long win) throws IOException {
+        runningTotal += win;
+        append(SETTLE, spots << 8 | k, drawIndex, hits.lo(), hits.hi(), win);
+    }
+
+
+    private void append(int type, int info, long draw, long lo, long hi, long win) throws IOException {
+        if (position + RECORD > mapStart + REGION) remap(position);
+        ByteBuffer r = scratch;
+        r.putInt(0, type).putInt(4, info).putLong(8, draw).putLong(16, lo).putLong(24, hi)
+         .putLong(32, win).putLong(40, runningTotal).putLong(48, records);
+        crc.reset();
+        crc.update(r.array(), 0, CRC);
+        r.putInt(CRC, (int) crc.getValue());
+        map.put((int) (position - mapStart), r.array(), 0, RECORD);
+        position += RECORD;
+        records++;
+        dirty = true;
+    }
+
+
+    private void remap(long at) throws IOException {
+        if (map != null) map.force();
+        mapStart = at;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, at, REGION);
+        map.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+    private void groupCommit() {
+        if (!dirty) return;
+        try { sync(); } catch (UncheckedIOException e) { System.err.println("journal sync failed: " + e.getMessage()); }
+    }
+
+
+    // Forces everything appended so far to disk.
+    public void sync() {
+        MappedByteBuffer m;
+        synchronized (this) { m = map; dirty = false; }
+        m.force();
+    }
+
+
+    public synchronized long runningTotal() { return runningTotal; }
+    public synchronized long records() { return records; }
+    public OptionalLong seed() { return seed; }
+    // One past the highest draw number journaled so far.
+    public synchronized long nextDrawNo() { return nextDrawNo; }
+
+
+    // A counter-based engine continuing a seeded journal: its next draw is draw nextDrawNo() of the journal's seed.
+    public DrawingEngine engine() {
+        if (seed.isEmpty()) throw new IllegalStateException("journal has no seed");
+        return DrawingEngine.counterBased(seed.getAsLong(), nextDrawNo());
+    }
+
+
+    // Waits for an in-flight group commit before the final force, so no force() runs against a closed channel.
+    // Not synchronized: the syncer needs the lock to finish.
+    @Override
+    public void close() throws IOException {
+        boolean stopped = true, interrupted = false;
+        if (syncer != null) {
+            syncer.shutdown();
+            try { stopped = syncer.awaitTermination(10, TimeUnit.SECONDS); }
+            catch (InterruptedException e) { interrupted = true; stopped = false; }
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                map.force();
+                // trim the unused part of the mapped region; Windows refuses while the mapping is alive, and replay
+                // stops at the zeroed tail anyway
+                try { channel.truncate(position); } catch (IOException ignored) {}
+                channel.close();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for the journal syncer");
+        }
+        if (!stopped) throw new IOException("journal syncer did not stop");
+    }
+
+
+    public static long replay(Path file, Visitor v) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) { return scan(ch, v); }
+    }
+
+
+    // Rebuilds a StatsTracker from the journal's settlements; returns the number of records read.
+    public static long replayInto(Path file, StatsTracker stats) throws IOException {
+        return replay(file, new Visitor() {
+            @Override public void onSettlement(long drawIndex, int spots, int k, long hitLo, long hitHi, long win, long total) {
+                stats.record(spots, new MatchResult((int) drawIndex, new NumberMask(hitLo, hitHi).toSet(), k, (int) win));
+            }
+        });
+    }
+
+
+    private static long scan(FileChannel ch, Visitor v) throws IOException {
+        long size = ch.size(), n = 0;
+        if (size < HEADER) throw new IOException("not a keno journal");
+        ByteBuffer h = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        ch.read(h, 0);
+        if (h.getLong(0) != MAGIC || h.getInt(12) != RECORD) throw new IOException("not a keno journal");
+        if (h.getInt(8) != VERSION) throw new IOException("unsupported journal version " + h.getInt(8));
+        ByteBuffer r = ByteBuffer.allocate(RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        for (long start = HEADER; start < size; start += SCAN) {
+            long len = Math.min(SCAN, size - start);
+            MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_ONLY, start, len);
+            for (int p = 0; p + RECORD <= len; p += RECORD, n++) {
+                m.get(p, r.array(), 0, RECORD);
+                crc.reset();
+                crc.update(r.array(), 0, CRC);
+                if (r.getLong(48) != n || r.getInt(CRC) != (int) crc.getValue()) return n;
+                int type = r.getInt(0);
+                if (type == DRAW) v.onDraw(r.getLong(8), r.getLong(16), r.getLong(24));
+                else if (type == SETTLE) {
+                    int info = r.getInt(4);
+                    v.onSettlement(r.getLong(8), info >>> 8, info & 0xFF, r.getLong(16), r.getLong(24), r.getLong(32), r.getLong(40));
+                }
+                else return n;
+            }
+        }
+        return n;
+    }
+}
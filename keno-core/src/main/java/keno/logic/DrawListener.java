@@ -0,0 +1,8 @@
+package keno.logic;
+
+
+// Called with the packed mask of every draw a DrawingEngine produces (see NumberMask for the bit layout).
+@FunctionalInterface
+public interface DrawListener {
+    void onDraw(long lo, long hi);
+}
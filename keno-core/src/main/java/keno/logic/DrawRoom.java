@@ -0,0 +1,157 @@
+package keno.logic;
+
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// One timed room of a DrawScheduler: draws every interval with its own engine, takes tickets until `cutoff` before
+// each draw, and settles the closed round on the scheduler's settlement executor. Draw times stay on a fixed grid
+// (epoch + n × interval), so a late wake-up never shifts later draws; a stall longer than an interval skips rounds.
+public class DrawRoom {
+    public record Ticket(long round, int index) {}
+
+    // tickets and payouts are only valid during the callback; the book is recycled for a later round afterwards.
+    public record Result(DrawRoom room, long round, NumberMask drawn, TicketBook tickets, long[] payouts,
+                         BulkSettlement.Summary summary, long lateNanos) {}
+
+    public interface Listener { void onSettled(Result result); }
+
+
+    private final DrawScheduler scheduler;
+    private final String name;
+    private final long intervalNanos, cutoffNanos;
+    private final DrawingEngine engine;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private TicketBook open = new TicketBook(64), spare;    // guarded by this
+    private BankrollLedger ledger;                          // the open round's ledger, guarded by this
+    private long round;                                     // guarded by this
+    private ScheduledFuture<?> pending;                     // guarded by this
+    private volatile long nextDrawAt, maxLateNanos;
+    private final AtomicLong failedCredits = new AtomicLong();
+    private volatile boolean closed;
+
+
+    DrawRoom(DrawScheduler scheduler, String name, long intervalNanos, long cutoffNanos, DrawingEngine engine, long firstDrawAt) {
+        this.scheduler = scheduler; this.name = name; this.intervalNanos = intervalNanos; this.cutoffNanos = cutoffNanos;
+        this.engine = engine; this.nextDrawAt = firstDrawAt; this.ledger = scheduler.ledger();
+    }
+
+
+    synchronized void schedule() {
+        if (!closed) pending = scheduler.timer(this::fire, nextDrawAt - System.nanoTime());
+    }
+
+
+    // Runs on a timer thread: only the round swap and the draw itself happen here, settlement is handed off.
+    private void fire() {
+        long late, r;
+        NumberMask drawn = new NumberMask();
+        TicketBook book;
+        BankrollLedger paidFrom;
+        synchronized (this) {
+            if (closed) return;
+            long now = System.nanoTime();
+            late = Math.max(0, now - nextDrawAt);
+            r = round++;
+            book = open;
+            open = spare != null ? spare : new TicketBook(book.size());
+            spare = null;
+            paidFrom = ledger;
+            ledger = scheduler.ledger();
+            long t0 = scheduler.metrics().start();
+            engine.draw20(drawn);
+            scheduler.metrics().drew(t0);
+            long next = nextDrawAt + intervalNanos;
+            if (next <= now) next += (now - next) / intervalNanos * intervalNanos + intervalNanos;
+            nextDrawAt = next;
+            schedule();
+        }
+        scheduler.jitter().record(late);
+        if (late > maxLateNanos) maxLateNanos = late;
+        scheduler.settle(() -> settle(r, drawn, book, paidFrom, late));
+    }
+
+
+    // The round's wagers feed the jackpot only once it has drawn, so a round dropped by close() never contributed.
+    // A payout that cannot be credited is reported and counted; it does not stop the rest of the round.
+    private void settle(long r, NumberMask drawn, TicketBook book, BankrollLedger ledger, long late) {
+        long[] payouts = new long[book.size()];
+        BulkSettlement.Summary summary = scheduler.settlement().settle(book, drawn, payouts);
+        JackpotPool jackpot = scheduler.jackpot();
+        if (jackpot != null) {
+            jackpot.contribute(summary.wagered());
+            long fixed = summary.liability();
+            summary = jackpot.payWinners(book, drawn, payouts, summary);
+            scheduler.metrics().paid(summary.liability() - fixed);
+        }
+        if (ledger != null) {
+            for (int i=0;i<book.size();i++) {
+                if (payouts[i] == 0 || book.account(i) == 0) continue;
+                try {
+                    ledger.credit(book.account(i), payouts[i]);
+                } catch (RuntimeException e) {
+                    failedCredits.incrementAndGet();
+                    System.err.println("room " + name + " round " + r + ": payout of " + payouts[i] + " to account " + book.account(i) + " failed: " + e.getMessage());
+                }
+            }
+        }
+        Result result = new Result(this, r, drawn, book, payouts, summary, late);
+        for (Listener l : listeners) {
+            try { l.onSettled(result); } catch (RuntimeException e) { System.err.println("room " + name + " listener failed: " + e); }
+        }
+        book.clear();
+        synchronized (this) { if (spare == null) spare = book; }
+    }
+
+
+    // The ticket plays in the returned round, at the returned index of that round's Result.
+    public Ticket placeTicket(NumberMask picks, long wagerCents) { return placeTicket(0, picks, wagerCents); }
+
+
+    // With a ledger on the scheduler, a non-zero account pays the wager up front; IllegalStateException when it is short.
+    // The round keeps the ledger it opened with, so its payouts and refunds go back to the ledger that was debited.
+    public synchronized Ticket placeTicket(long accountId, NumberMask picks, long wagerCents) {
+        if (closed) throw new IllegalStateException("room " + name + " is closed");
+        if (System.nanoTime() >= nextDrawAt - cutoffNanos) throw new IllegalStateException("betting closed for round " + round);
+        BankrollLedger paidFrom = accountId != 0 ? ledger : null;
+        if (paidFrom != null && wagerCents > 0 && !paidFrom.debit(accountId, wagerCents))
+            throw new IllegalStateException("insufficient funds in account " + accountId);
+        try {
+            return new Ticket(round, open.add(picks, wagerCents, accountId));
+        } catch (RuntimeException e) {
+            if (paidFrom != null && wagerCents > 0) paidFrom.refund(accountId, wagerCents);
+            throw e;
+        }
+    }
+
+
+    public boolean isBettingOpen() { return !closed && System.nanoTime() < nextDrawAt - cutoffNanos; }
+    public long nanosToNextDraw() { return nextDrawAt - System.nanoTime(); }
+    public synchronized long round() { return round; }
+    public String name() { return name; }
+    public long intervalNanos() { return intervalNanos; }
+    public long cutoffNanos() { return cutoffNanos; }
+    public long maxLateNanos() { return maxLateNanos; }
+    public long failedCredits() { return failedCredits.get(); }
+    public boolean isClosed() { return closed; }
+    public void addListener(Listener l) { listeners.add(l); }
+    public void removeListener(Listener l) { listeners.remove(l); }
+
+
+    // Stops future draws; a round already drawn still settles. Tickets in the open round are dropped and refunded.
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            if (pending != null) pending.cancel(false);
+            if (ledger != null) {
+                for (int i=0;i<open.size();i++) if (open.account(i) != 0) ledger.refund(open.account(i), open.wager(i));
+            }
+            open.clear();
+        }
+        scheduler.removed(this);
+    }
+}
@@ -0,0 +1,97 @@
+package keno.logic;
+
+
+import keno.util.LatencyHistogram;
+import keno.util.Threads;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// Runs many DrawRooms on a small shared pool of timer threads. Timer tasks only swap the round's ticket book and
+// draw 20 numbers (well under a microsecond), so thousands of rooms fit on a couple of threads; settlement and
+// listeners run on a separate executor. Rooms opened together are phase-staggered across their interval so they
+// do not all wake on the same tick. jitter() records how late each draw fired relative to its scheduled time; it
+// and DrawRoom.maxLateNanos() are report-only, nothing is throttled or re-timed on them (a draw more than an
+// interval late skips rounds, see DrawRoom). Callers that need a bound, e.g. to shed rooms, check them.
+public class DrawScheduler implements AutoCloseable {
+    private static final double GOLDEN = 0.6180339887498949;
+
+    private final ScheduledThreadPoolExecutor timers;
+    private final Executor settler;
+    private final KenoMetrics metrics;
+    private final BulkSettlement settlement;
+    private final LatencyHistogram jitter = new LatencyHistogram();
+    private final Map<String, DrawRoom> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong opened = new AtomicLong();
+    private volatile JackpotPool jackpot;
+    private volatile BankrollLedger ledger;
+
+
+    public DrawScheduler() { this(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), ForkJoinPool.commonPool()); }
+
+
+    public DrawScheduler(int timerThreads, Executor settler) { this(timerThreads, settler, KenoMetrics.get()); }
+
+
+    // Draws and settlements of every room are counted in `metrics`.
+    public DrawScheduler(int timerThreads, Executor settler, KenoMetrics metrics) {
+        if (timerThreads<1) throw new IllegalArgumentException("timerThreads");
+        this.timers = new ScheduledThreadPoolExecutor(timerThreads, Threads.daemonFactory("keno-room-timer"));
+        this.timers.setRemoveOnCancelPolicy(true);
+        this.settler = settler;
+        this.metrics = metrics;
+        this.settlement = new BulkSettlement(ForkJoinPool.commonPool(), metrics);
+    }
+
+
+    public DrawRoom open(String name, Duration interval, Duration cutoff) {
+        return open(name, interval, cutoff, new DrawingEngine());
+    }
+
+
+    // The first draw is one interval plus a stagger (a golden-ratio fraction of the interval) from now.
+    public DrawRoom open(String name, Duration interval, Duration cutoff, DrawingEngine engine) {
+        long iv = interval.toNanos(), co = cutoff.toNanos();
+        if (iv<=0) throw new IllegalArgumentException("interval");
+        if (co<0||co>=iv) throw new IllegalArgumentException("cutoff");
+        if (timers.isShutdown()) throw new IllegalStateException("scheduler closed");
+        long stagger = (long) (opened.getAndIncrement() * GOLDEN % 1.0 * iv);
+        DrawRoom room = new DrawRoom(this, name, iv, co, engine, System.nanoTime() + iv + stagger);
+        if (rooms.putIfAbsent(name, room) != null) throw new IllegalArgumentException("room " + name + " already open");
+        room.schedule();
+        return room;
+    }
+
+
+    public Optional<DrawRoom> room(String name) { return Optional.ofNullable(rooms.get(name)); }
+    public Collection<DrawRoom> rooms() { return Collections.unmodifiableCollection(rooms.values()); }
+    public LatencyHistogram jitter() { return jitter; }
+
+
+    // A pool shared by every room: each drawn round's wagers contribute, and 10-of-10 hits are paid from it. null disables.
+    public void setJackpot(JackpotPool pool) { this.jackpot = pool; }
+    public JackpotPool jackpot() { return jackpot; }
+
+
+    // When set, tickets placed with an account are paid from it and their payouts credited back to it on settlement.
+    // Each room picks up a change from its next round; a round already taking bets keeps the ledger it opened with.
+    public void setLedger(BankrollLedger ledger) { this.ledger = ledger; }
+    public BankrollLedger ledger() { return ledger; }
+
+
+    ScheduledFuture<?> timer(Runnable task, long delayNanos) { return timers.schedule(task, delayNanos, TimeUnit.NANOSECONDS); }
+    void settle(Runnable task) { settler.execute(task); }
+    BulkSettlement settlement() { return settlement; }
+    KenoMetrics metrics() { return metrics; }
+    void removed(DrawRoom room) { rooms.remove(room.name(), room); }
+
+
+    @Override
+    public void close() {
+        for (DrawRoom r : new ArrayList<>(rooms.values())) r.close();
+        timers.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+package keno.logic;
+
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+
+// Not thread-safe: use one engine per thread (the RNG itself may be shared if it is THREAD_LOCAL).
+// Built on a CounterRng the engine is seekable: draw N depends only on (seed, N), see counterBased().
+public class DrawingEngine {
+    private final RandomGenerator rng;
+    private final CounterRng counter;
+    private final int[] pool = new int[80];
+    private long nextIndex;
+    private DrawListener[] listeners = new DrawListener[0];
+
+
+    public DrawingEngine() { this(RngStrategy.SPLITTABLE); }
+    public DrawingEngine(RngStrategy strategy) { this(strategy.create()); }
+    public DrawingEngine(RandomGenerator rng) {
+        this.rng = Objects.requireNonNull(rng);
+        this.counter = rng instanceof CounterRng c ? c : null;
+        for (int i=0;i<80;i++) pool[i] = i + 1;
+    }
+
+
+    // Deterministic engine whose draw N is a pure function of (seed, N); the first draw20 call yields draw startIndex.
+    public static DrawingEngine counterBased(long seed, long startIndex) {
+        DrawingEngine e = new DrawingEngine(new CounterRng(seed));
+        e.nextIndex = startIndex;
+        return e;
+    }
+    public static DrawingEngine counterBased(long seed) { return counterBased(seed, 0); }
+
+
+    public Set<Integer> draw20() {
+        NumberMask m = new NumberMask();
+        draw20(m);
+        return m.toSet();
+    }
+
+
+    // Allocation-free draw: overwrites out with 20 distinct numbers.
+    public void draw20(NumberMask out) {
+        KenoEvents.Draw ev = KenoEvents.ON ? KenoEvents.Draw.started() : null;
+        long index = counter != null ? nextIndex++ : -1;
+        if (index >= 0) position(index);
+        out.clear();
+        shuffle20();
+        for (int i=0;i<20;i++) out.add(pool[i]);
+        if (ev != null) ev.end(index, out.lo(), out.hi());
+        for (DrawListener l : listeners) l.onDraw(out.lo(), out.hi());
+    }
+
+
+    // Random access for counter-based engines: re-derives draw `index` without touching the sequence or listeners.
+    public void drawAt(long index, NumberMask out) {
+        if (counter == null) throw new IllegalStateException("not a counter-based engine");
+        position(index);
+        out.clear();
+        shuffle20();
+        for (int i=0;i<20;i++) out.add(pool[i]);
+    }
+
+
+    public boolean isCounterBased() { return counter != null; }
+    public long nextDrawIndex() { return nextIndex; }
+    public void seek(long index) {
+        if (counter == null) throw new IllegalStateException("not a counter-based engine");
+        nextIndex = index;
+    }
+
+
+    private void position(long index) {
+        counter.seek(index);
+        for (int i=0;i<80;i++) pool[i] = i + 1;
+    }
+
+
+    // The latest draw in the order its numbers came out (uniformly random), e.g. for reveal animations.
+    public void lastDrawOrder(int[] out20) { System.arraycopy(pool, 0, out20, 0, 20); }
+
+
+    public void addListener(DrawListener l) {
+        DrawListener[] ls = Arrays.copyOf(listeners, listeners.length + 1);
+        ls[ls.length - 1] = Objects.requireNonNull(l);
+        listeners = ls;
+    }
+
+
+    // Partial Fisher–Yates over the persistent pool: exactly 20 RNG calls, no retries.
+    // The pool stays a permutation of 1..80 between draws, which keeps every draw uniform.
+    private void shuffle20() {
+        for (int i=0;i<20;i++) {
+            int j = i + rng.nextInt(80 - i);
+            int t = pool[i]; pool[i] = pool[j]; pool[j] = t;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package keno.logic;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+
+// Payout exposure of a book of open tickets before the draw, in cents:
+//  - expected liability of the fixed prizes, exact: Σ wager × EV(spots) from the hypergeometric odds
+//  - worst-case bound, exact upper bound: every ticket paid its largest prize at once
+//  - the liability distribution over `samples` random draws, evaluated in parallel blocks of draws over a bit-sliced
+//    copy of the book (see Sliced), a few word operations per (ticket, draw) instead of a popcount pair and a lookup
+//  - per-number risk, exact: expected liability given that number is drawn, minus the unconditional expectation
+// A progressive jackpot (see JackpotPool) is paid in full, on top of the fixed prizes, by any draw in which some
+// 10-spot ticket hits all ten; the worst case and the sampled draws include it. expectedLiability and per-number risk
+// cover the fixed prizes only. The jackpot's expected cost is reported next to them as expectedJackpot: the pool times
+// P(some 10-spot ticket hits all ten), which has no cheap exact form for many overlapping sets, so it is bounded by
+// (distinct 10-spot sets) × P(10 of 10), capped at 1. That is exact for a single set and tight while the product is
+// small; expectedTotal() adds it to the fixed-prize expectation.
+public class ExposureCalculator {
+    public static final int DEFAULT_SAMPLES = 10_000;
+    private static final int BLOCK = 128;                 // draws evaluated per pass over the book
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    public record Report(int tickets, long wagered, double expectedLiability, long worstCaseBound, long[] sampled,
+                         double[] conditionalLiability, long jackpot, double expectedJackpot) {
+        public int samples() { return sampled.length; }
+
+        // Fixed-prize expectation plus the jackpot's expected cost; an upper bound once several 10-spot sets are open.
+        public double expectedTotal() { return expectedLiability + expectedJackpot; }
+
+        // p in [0, 100] over the sampled liabilities.
+        public long percentile(double p) {
+            if (p<0||p>100) throw new IllegalArgumentException("p");
+            if (sampled.length == 0) return 0;
+            return sampled[(int) Math.min(sampled.length - 1, Math.max(0, Math.ceil(p / 100 * sampled.length) - 1))];
+        }
+
+        public long maxSampled() { return sampled.length == 0 ? 0 : sampled[sampled.length - 1]; }
+        public double sampledMean() { return Arrays.stream(sampled).average().orElse(0); }
+
+        public double sampledStdDev() {
+            double m = sampledMean(), sq = 0;
+            for (long v : sampled) sq += (v - m) * (v - m);
+            return sampled.length < 2 ? 0 : Math.sqrt(sq / (sampled.length - 1));
+        }
+
+        // Extra expected liability if n is drawn (cents); the riskiest numbers have the largest values.
+        public double riskContribution(int n) {
+            if (n<1||n>80) throw new IllegalArgumentException("n");
+            return conditionalLiability[n] - expectedLiability;
+        }
+
+        public int[] riskiestNumbers(int k) {
+            return IntStream.rangeClosed(1, 80).boxed()
+                    .sorted((a, b) -> Double.compare(conditionalLiability[b], conditionalLiability[a]))
+                    .limit(Math.max(0, Math.min(80, k))).mapToInt(Integer::intValue).toArray();
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d tickets, wagered $%,.2f%n", tickets, wagered / 100.0));
+            sb.append(String.format(" expected liability  $%,.2f (exact, fixed prizes only)%n", expectedLiability / 100));
+            if (jackpot != 0) sb.append(String.format(" expected jackpot    at most $%,.2f, total at most $%,.2f%n",
+                    expectedJackpot / 100, expectedTotal() / 100));
+            sb.append(String.format(" worst-case bound    $%,.2f%s%n", worstCaseBound / 100.0,
+                    jackpot == 0 ? "" : String.format(" (includes a $%,.2f jackpot)", jackpot / 100.0)));
+            sb.append(String.format(" %,d sampled draws: mean $%,.2f  sd $%,.2f  p50 $%,.2f  p99 $%,.2f  p99.9 $%,.2f  max $%,.2f%n",
+                    samples(), sampledMean() / 100, sampledStdDev() / 100, percentile(50) / 100.0, percentile(99) / 100.0,
+                    percentile(99.9) / 100.0, maxSampled() / 100.0));
+            sb.append(" riskiest numbers:");
+            for (int n : riskiestNumbers(5)) sb.append(String.format(" %d (+$%,.2f)", n, riskContribution(n) / 100));
+            return sb.append('\n').toString();
+        }
+    }
+
+
+    private final ForkJoinPool pool;
+
+
+    public ExposureCalculator() { this(ForkJoinPool.commonPool()); }
+    public ExposureCalculator(ForkJoinPool pool) { this.pool = pool; }
+
+
+    public Report evaluate(TicketBook book) { return evaluate(book, PayoutTable.active(), DEFAULT_SAMPLES, System.nanoTime()); }
+
+
+    public Report evaluate(TicketBook book, PaySchedule schedule, int samples, long seed) { return evaluate(book, schedule, samples, seed, 0); }
+
+
+    // The book must not change while it is evaluated (settle or evaluate only after the betting cut-off).
+    // jackpotCents is the progressive pool a 10-of-10 hit would pay, e.g. JackpotPool.value(); 0 when there is none.
+    public Report evaluate(TicketBook book, PaySchedule schedule, int samples, long seed, long jackpotCents) {
+        if (samples<0) throw new IllegalArgumentException("samples");
+        if (jackpotCents<0) throw new IllegalArgumentException("jackpotCents");
+        int n = book.size();
+        long[] lo = book.loColumn(), hi = book.hiColumn(), wager = book.wagerColumn();
+        byte[] spots = book.spotsColumn();
+
+        // per spot count: total wager; per number and spot count: wager of tickets holding that number
+        long[] wagerBySpots = new long[16];
+        long[][] wagerWith = new long[81][16];
+        long wagered = 0, worst = 0;
+        int[] maxPrize = new int[16];
+        for (int s=1;s<=PaySchedule.MAX_SPOTS;s++) for (int k=0;k<=s;k++) maxPrize[s] = Math.max(maxPrize[s], schedule.prize(s, k));
+        for (int i=0;i<n;i++) {
+            int s = spots[i];
+            long w = wager[i];
+            wagered += w;
+            wagerBySpots[s] += w;
+            worst += w * maxPrize[s];
+            for (long m = lo[i]; m != 0; m &= m - 1) wagerWith[Long.numberOfTrailingZeros(m) + 1][s] += w;
+            for (long m = hi[i]; m != 0; m &= m - 1) wagerWith[Long.numberOfTrailingZeros(m) + 65][s] += w;
+        }
+        long jackpot = wagerBySpots[10] > 0 ? jackpotCents : 0;
+        worst += jackpot;
+
+        OddsTable odds = OddsTable.of(schedule);
+        double expectedJackpot = jackpot == 0 ? 0 : Math.min(1, distinctTens(book) * odds.probability(10, 10)) * jackpot;
+        double expected = 0;
+        double[] given = new double[16], without = new double[16];
+        for (int s=1;s<=PaySchedule.MAX_SPOTS;s++) {
+            expected += wagerBySpots[s] * odds.expectedValue(s);
+            given[s] = conditionalEv(schedule, s, true);
+            without[s] = conditionalEv(schedule, s, false);
+        }
+        double[] conditional = new double[81];
+        for (int num=1;num<=80;num++) {
+            double e = 0;
+            for (int s=1;s<=PaySchedule.MAX_SPOTS;s++) e += wagerWith[num][s] * given[s] + (wagerBySpots[s] - wagerWith[num][s]) * without[s];
+            conditional[num] = e;
+        }
+
+        long[] sampled = new long[samples];
+        Sliced sliced = Sliced.of(book);
+        int blocks = (samples + BLOCK - 1) / BLOCK;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(blocks);
+        for (int b=0;b<blocks;b++) {
+            int from = b * BLOCK, to = Math.min(samples, from + BLOCK);
+            long blockSeed = seed + b * GOLDEN;
+            tasks.add(ForkJoinTask.adapt(() -> sampleBlock(book, sliced, schedule, jackpot, new SplittableRandom(blockSeed), sampled, from, to)));
+        }
+        if (blocks == 1) tasks.get(0).invoke();
+        else if (blocks > 1) pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        Arrays.sort(sampled);
+        return new Report(n, wagered, expected, worst, sampled, conditional, jackpot, expectedJackpot);
+    }
+
+
+    // Number of distinct pick sets among the book's 10-spot tickets, by sorting their combinatorial ranks.
+    private static int distinctTens(TicketBook book) {
+        long[] lo = book.loColumn(), hi = book.hiColumn();
+        byte[] spots = book.spotsColumn();
+        long[] ranks = new long[book.size()];
+        int m = 0;
+        for (int i=0;i<book.size();i++) if (spots[i] == 10) ranks[m++] = Combinations.rank(lo[i], hi[i]);
+        Arrays.sort(ranks, 0, m);
+        int distinct = 0;
+        for (int i=0;i<m;i++) if (i == 0 || ranks[i] != ranks[i - 1]) distinct++;
+        return distinct;
+    }
+
+
+    // Expected prize per $1 of an s-spot ticket given that one particular number is drawn: with `holds`, that number
+    // is one of the picks (so one hit is certain and the other s-1 picks face 19 draws from 79 numbers); otherwise
+    // all s picks face those 19 draws.
+    private static double conditionalEv(PaySchedule schedule, int s, boolean holds) {
+        int picks = holds ? s - 1 : s, base = holds ? 1 : 0;
+        BigInteger total = OddsTable.choose(79, 19);
+        double ev = 0;
+        for (int k=0;k<=picks;k++) {
+            double p = new BigDecimal(OddsTable.choose(picks, k).multiply(OddsTable.choose(79 - picks, 19 - k)))
+                    .divide(new BigDecimal(total), MathContext.DECIMAL64).doubleValue();
+            ev += p * schedule.prize(s, k + base);
+        }
+        return ev;
+    }
+
+
+    // Bit-sliced layout: tickets sharing (spots, wager) are packed 64 to a group as 80 words, word j holding bit t
+    // when the group's ticket t picked number j+1. A draw's hits for all 64 tickets are then 20 word additions into
+    // a 4-bit carry-save counter, and its payout a popcount per paying match count. Tickets left over when a
+    // (spots, wager) class does not fill its last group go through the scalar kernel.
+    private static final class Sliced {
+        final long[] words;      // [group * 80 + number - 1]
+        final byte[] spots;
+        final long[] wager;
+        final int[] scalar;      // ticket indexes for the scalar kernel
+
+
+        private Sliced(long[] words, byte[] spots, long[] wager, int[] scalar) {
+            this.words = words; this.spots = spots; this.wager = wager; this.scalar = scalar;
+        }
+
+
+        static Sliced of(TicketBook book) {
+            int n = book.size();
+            byte[] sp = book.spotsColumn();
+            long[] w = book.wagerColumn(), lo = book.loColumn(), hi = book.hiColumn();
+            Map<Long, int[]> counts = new HashMap<>();
+            for (int i=0;i<n;i++) counts.computeIfAbsent(w[i] << 4 | sp[i], k -> new int[1])[0]++;
+            int groups = 0;
+            for (int[] c : counts.values()) groups += c[0] / 64;
+            long[] words = new long[groups * 80];
+            byte[] gSpots = new byte[groups];
+            long[] gWager = new long[groups];
+            int[] scalar = new int[n - groups * 64];
+            // per class: the group being filled and how many of the class's full groups are still to come
+            Map<Long, int[]> fill = new HashMap<>();
+            int nextGroup = 0, ns = 0;
+            for (int i=0;i<n;i++) {
+                long key = w[i] << 4 | sp[i];
+                int[] f = fill.get(key);
+                if (f == null) fill.put(key, f = new int[]{-1, 64, counts.get(key)[0] / 64});
+                if (f[1] == 64) {
+                    if (f[2] == 0) { scalar[ns++] = i; continue; }
+                    f[0] = nextGroup++; f[1] = 0; f[2]--;
+                    gSpots[f[0]] = sp[i]; gWager[f[0]] = w[i];
+                }
+                long bit = 1L << f[1]++;
+                int base = f[0] * 80;
+                for (long m = lo[i]; m != 0; m &= m - 1) words[base + Long.numberOfTrailingZeros(m)] |= bit;
+                for (long m = hi[i]; m != 0; m &= m - 1) words[base + 64 + Long.numberOfTrailingZeros(m)] |= bit;
+            }
+            return new Sliced(words, gSpots, gWager, scalar);
+        }
+    }
+
+
+    // Liability of the whole book for draws [from, to), each group or ticket read once for the whole block of draws.
+    // A draw in which any 10-spot ticket hits all ten also pays the jackpot, once.
+    private static void sampleBlock(TicketBook book, Sliced sliced, PaySchedule schedule, long jackpot, SplittableRandom rng,
+                                    long[] out, int from, int to) {
+        int m = to - from;
+        long[] dLo = new long[m], dHi = new long[m], acc = new long[m];
+        boolean[] tenOfTen = new boolean[m];
+        int[] numbers = new int[m * 20];
+        DrawingEngine engine = new DrawingEngine(rng);
+        NumberMask drawn = new NumberMask();
+        for (int d=0;d<m;d++) {
+            engine.draw20(drawn);
+            dLo[d] = drawn.lo(); dHi[d] = drawn.hi();
+            int j = d * 20;
+            for (long b = dLo[d]; b != 0; b &= b - 1) numbers[j++] = Long.numberOfTrailingZeros(b);
+            for (long b = dHi[d]; b != 0; b &= b - 1) numbers[j++] = 64 + Long.numberOfTrailingZeros(b);
+        }
+        int[] prizes = new int[16 * 16];
+        for (int s=1;s<=PaySchedule.MAX_SPOTS;s++) for (int k=0;k<=s;k++) prizes[s << 4 | k] = schedule.prize(s, k);
+
+        long[] words = sliced.words;
+        for (int g=0;g<sliced.spots.length;g++) {
+            int base = g * 80, row = sliced.spots[g] << 4, spots = sliced.spots[g];
+            long w = sliced.wager[g];
+            for (int d=0;d<m;d++) {
+                long c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+                for (int j=d*20, e=j+20;j<e;j++) {
+                    long x = words[base + numbers[j]], t0 = c0 & x, t1, t2;
+                    c0 ^= x; t1 = c1 & t0; c1 ^= t0; t2 = c2 & t1; c2 ^= t1; c3 ^= t2;
+                }
+                long sum = 0;
+                for (int k=0;k<=spots;k++) {
+                    int p = prizes[row | k];
+                    if (p == 0) continue;
+                    long eq = ((k & 1) != 0 ? c0 : ~c0) & ((k & 2) != 0 ? c1 : ~c1) & ((k & 4) != 0 ? c2 : ~c2) & ((k & 8) != 0 ? c3 : ~c3);
+                    sum += (long) p * Long.bitCount(eq);
+                }
+                acc[d] += w * sum;
+                if (spots == 10 && (c3 & ~c2 & c1 & ~c0) != 0) tenOfTen[d] = true;
+            }
+        }
+
+        long[] lo = book.loColumn(), hi = book.hiColumn(), wager = book.wagerColumn();
+        byte[] spots = book.spotsColumn();
+        for (int i : sliced.scalar) {
+            long l = lo[i], h = hi[i], w = wager[i];
+            int row = spots[i] << 4;
+            for (int d=0;d<m;d++) {
+                int k = Long.bitCount(l & dLo[d]) + Long.bitCount(h & dHi[d]);
+                acc[d] += w * prizes[row | k];
+                if (k == 10) tenOfTen[d] = true;
+            }
+        }
+        for (int d=0;d<m;d++) if (tenOfTen[d]) acc[d] += jackpot;
+        System.arraycopy(acc, 0, out, from, m);
+    }
+
+
+    // java keno.logic.ExposureCalculator [tickets] [samples]: a random book of quick picks at $1, spots 1/4/8/10 mixed
+    public static void main(String[] args) {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLES;
+        TicketBook book = new TicketBook(tickets);
+        SplittableRandom rng = new SplittableRandom(1);
+        NumberMask m = new NumberMask();
+        int[] spots = {1, 4, 8, 10};
+        for (int i=0;i<tickets;i++) {
+            Combinations.quickPick(spots[i & 3], rng, m);
+            book.add(m, 100);
+        }
+        long t0 = System.nanoTime();
+        Report r = new ExposureCalculator().evaluate(book, PayoutTable.active(), samples, 1);
+        System.out.print(r.summary());
+        System.out.printf(" evaluated in %.2f s%n", (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,315 @@
+package keno.logic;
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+// Streaming export of draw/settlement history to a columnar binary format or CSV, optionally gzip-compressed, and
+// the matching importer. Rows are buffered in blocks of 64K, so memory stays constant however long the history is.
+//
+// Binary layout (little-endian): long magic "KENOCOL1" | int version, then blocks of
+//   int rows | byte type[rows] | byte spots[rows] | byte k[rows] | long draw[rows] | long lo[rows] | short hi[rows] | long win[rows]
+// ending with a block of 0 rows. type is DrawJournal.DRAW or SETTLE; lo/hi is the drawn or the hit mask. Running
+// totals are not stored: they are the running sum of win and are rebuilt on import.
+// CSV: type,draw,spots,k,numbers,win,running_total with numbers space-separated.
+public final class HistoryArchive {
+    public enum Format { BINARY, CSV }
+
+    static final long MAGIC = 0x314C4F434F4E454BL; // "KENOCOL1"
+    static final int VERSION = 1, BLOCK = 1 << 16, ROW_BYTES = 3 + 8 + 8 + 2 + 8;
+    private static final String CSV_HEADER = "type,draw,spots,k,numbers,win,running_total";
+
+
+    private HistoryArchive() { }
+
+
+    // Format and compression follow the file name: *.csv / *.csv.gz, anything else is binary (*.gz compressed).
+    public static long export(Path journal, Path out) throws IOException {
+        String name = out.getFileName().toString();
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) name = name.substring(0, name.length() - 3);
+        return export(journal, out, name.endsWith(".csv") ? Format.CSV : Format.BINARY, gzip);
+    }
+
+
+    // Returns the number of rows written.
+    public static long export(Path journal, Path out, Format format, boolean gzip) throws IOException {
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Sink sink = open(gzip ? Channels.newChannel(gzip(Channels.newOutputStream(ch))) : ch, format)) {
+            DrawJournal.replay(journal, sink);
+            return sink.rows();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    // Fastest deflate level: exports are large and streamed, and columnar blocks compress well even at level 1.
+    private static GZIPOutputStream gzip(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, 1 << 16) {{ def.setLevel(Deflater.BEST_SPEED); }};
+    }
+
+
+    // A sink writing to ch; feed it through DrawJournal.replay or call the visitor methods directly. close() ends
+    // the stream and closes ch.
+    public static Sink open(WritableByteChannel ch, Format format) throws IOException {
+        return format == Format.CSV ? new CsvSink(ch) : new BinarySink(ch);
+    }
+
+
+    // Reads a binary or CSV export, compressed or not, calling v for each row in order; returns the rows read.
+    public static long read(Path in, DrawJournal.Visitor v) throws IOException {
+        try (FileChannel ch = FileChannel.open(in, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining() && ch.read(head) >= 0) { }
+            ch.position(0);
+            ReadableByteChannel src = ch;
+            if (head.position() >= 2 && (head.get(0) & 0xFF) == 0x1F && (head.get(1) & 0xFF) == 0x8B) {
+                src = Channels.newChannel(new GZIPInputStream(Channels.newInputStream(ch), 1 << 16));
+                head.clear();
+                while (head.hasRemaining() && src.read(head) >= 0) { }
+            } else {
+                ch.position(head.position());
+            }
+            if (head.position() == 8 && head.getLong(0) == MAGIC) return readBinary(src, v);
+            head.flip();
+            return readCsv(StandardCharsets.UTF_8.decode(head).toString(), src, v);
+        }
+    }
+
+
+    // Streams an export back into the stats and analytics components; either may be null. Settlements go into the
+    // tracker's aggregates only, so its history() is not filled and memory stays constant however long the export.
+    public static long importInto(Path in, StatsTracker stats, DrawAnalytics analytics) throws IOException {
+        return read(in, new DrawJournal.Visitor() {
+            @Override public void onDraw(long drawNo, long lo, long hi) {
+                if (analytics != null) analytics.onDraw(lo, hi);
+            }
+            @Override public void onSettlement(long drawIndex, int spots, int k, long hitLo, long hitHi, long win, long total) {
+                if (stats != null) stats.record(spots, k, win, 1);
+            }
+        });
+    }
+
+
+    public abstract static class Sink implements DrawJournal.Visitor, Closeable {
+        long rows;
+        public long rows() { return rows; }
+    }
+
+
+    private static final class BinarySink extends Sink {
+        private final WritableByteChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(4 + BLOCK * ROW_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte[] type = new byte[BLOCK], spots = new byte[BLOCK], k = new byte[BLOCK];
+        private final long[] draw = new long[BLOCK], lo = new long[BLOCK], win = new long[BLOCK];
+        private final short[] hi = new short[BLOCK];
+        private int n;
+
+
+        BinarySink(WritableByteChannel ch) throws IOException {
+            this.ch = ch;
+            buf.putLong(MAGIC).putInt(VERSION).flip();
+            writeFully(ch, buf);
+        }
+
+
+        @Override public void onDraw(long drawNo, long lo, long hi) { add(DrawJournal.DRAW, drawNo, 0, 0, lo, hi, 0); }
+        @Override public void onSettlement(long drawIndex, int spots, int k, long hitLo, long hitHi, long win, long total) {
+            add(DrawJournal.SETTLE, drawIndex, spots, k, hitLo, hitHi, win);
+        }
+
+
+        private void add(int t, long d, int s, int hits, long l, long h, long w) {
+            type[n] = (byte) t; spots[n] = (byte) s; k[n] = (byte) hits;
+            draw[n] = d; lo[n] = l; hi[n] = (short) h; win[n] = w;
+            rows++;
+            if (++n == BLOCK) flushBlock();
+        }
+
+
+        private void flushBlock() {
+            buf.clear();
+            buf.putInt(n).put(type, 0, n).put(spots, 0, n).put(k, 0, n);
+            putLongs(draw); putLongs(lo);
+            buf.asShortBuffer().put(hi, 0, n);
+            buf.position(buf.position() + 2 * n);
+            putLongs(win);
+            buf.flip();
+            try { writeFully(ch, buf); } catch (IOException e) { throw new UncheckedIOException(e); }
+            n = 0;
+        }
+
+
+        private void putLongs(long[] col) {
+            buf.asLongBuffer().put(col, 0, n);
+            buf.position(buf.position() + 8 * n);
+        }
+
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (n > 0) flushBlock();
+                buf.clear();
+                buf.putInt(0).flip();
+                writeFully(ch, buf);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+
+    private static final class CsvSink extends Sink {
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(128);
+        private long runningTotal;
+
+
+        CsvSink(WritableByteChannel ch) throws IOException {
+            this.out = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8), 1 << 16);
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+
+
+        @Override public void onDraw(long drawNo, long lo, long hi) { row("draw", drawNo, 0, 0, lo, hi, 0); }
+        @Override public void onSettlement(long drawIndex, int spots, int k, long hitLo, long hitHi, long win, long total) {
+            runningTotal += win;
+            row("settle", drawIndex, spots, k, hitLo, hitHi, win);
+        }
+
+
+        private void row(String type, long draw, int spots, int k, long lo, long hi, long win) {
+            line.setLength(0);
+            line.append(type).append(',').append(draw).append(',').append(spots).append(',').append(k).append(',');
+            int start = line.length();
+            for (long m = lo; m != 0; m &= m - 1) line.append(Long.numberOfTrailingZeros(m) + 1).append(' ');
+            for (long m = hi; m != 0; m &= m - 1) line.append(Long.numberOfTrailingZeros(m) + 65).append(' ');
+            if (line.length() > start) line.setLength(line.length() - 1);
+            line.append(',').append(win).append(',').append(type.equals("draw") ? "" : Long.toString(runningTotal)).append('\n');
+            try { out.append(line); } catch (IOException e) { throw new UncheckedIOException(e); }
+            rows++;
+        }
+
+
+        @Override
+        public void close() throws IOException {
+            try { out.close(); } catch (UncheckedIOException e) { throw e.getCause(); }
+        }
+    }
+
+
+    private static long readBinary(ReadableByteChannel src, DrawJournal.Visitor v) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(src, head);
+        if (head.getInt(0) != VERSION) throw new IOException("unsupported export version " + head.getInt(0));
+        ByteBuffer buf = ByteBuffer.allocateDirect(BLOCK * ROW_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] type = new byte[BLOCK], spots = new byte[BLOCK], k = new byte[BLOCK];
+        long[] draw = new long[BLOCK], lo = new long[BLOCK], win = new long[BLOCK];
+        short[] hi = new short[BLOCK];
+        long rows = 0, runningTotal = 0;
+        while (true) {
+            head.clear();
+            readFully(src, head);
+            int n = head.getInt(0);
+            if (n == 0) return rows;
+            if (n < 0 || n > BLOCK) throw new IOException("corrupt block of " + n + " rows");
+            buf.clear().limit(n * ROW_BYTES);
+            readFully(src, buf);
+            buf.flip();
+            buf.get(type, 0, n).get(spots, 0, n).get(k, 0, n);
+            getLongs(buf, draw, n); getLongs(buf, lo, n);
+            buf.asShortBuffer().get(hi, 0, n);
+            buf.position(buf.position() + 2 * n);
+            getLongs(buf, win, n);
+            for (int i=0;i<n;i++) {
+                long h = hi[i] & 0xFFFFL;
+                if (type[i] == DrawJournal.DRAW) v.onDraw(draw[i], lo[i], h);
+                else v.onSettlement(draw[i], spots[i], k[i], lo[i], h, win[i], runningTotal += win[i]);
+            }
+            rows += n;
+        }
+    }
+
+
+    private static void getLongs(ByteBuffer buf, long[] col, int n) {
+        buf.asLongBuffer().get(col, 0, n);
+        buf.position(buf.position() + 8 * n);
+    }
+
+
+    private static long readCsv(String prefix, ReadableByteChannel src, DrawJournal.Visitor v) throws IOException {
+        try {
+            return parseCsv(prefix, src, v);
+        } catch (NumberFormatException e) {
+            throw new IOException("bad number in csv export: " + e.getMessage(), e);
+        }
+    }
+
+
+    private static long parseCsv(String prefix, ReadableByteChannel src, DrawJournal.Visitor v) throws IOException {
+        BufferedReader in = new BufferedReader(new StringPrefixReader(prefix, Channels.newReader(src, StandardCharsets.UTF_8)), 1 << 16);
+        String line = in.readLine();
+        if (!CSV_HEADER.equals(line)) throw new IOException("not a keno history export");
+        long rows = 0, runningTotal = 0;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty()) continue;
+            String[] f = line.split(",", -1);
+            if (f.length != 7) throw new IOException("bad row " + (rows + 1) + ": " + line);
+            long lo = 0, hi = 0;
+            if (!f[4].isEmpty()) for (String num : f[4].split(" ")) {
+                int n = Integer.parseInt(num);
+                if (n<1||n>80) throw new IOException("bad number " + n + " in row " + (rows + 1));
+                if (n <= 64) lo |= 1L << (n - 1); else hi |= 1L << (n - 65);
+            }
+            long draw = Long.parseLong(f[1]), win = Long.parseLong(f[5]);
+            if (f[0].equals("draw")) v.onDraw(draw, lo, hi);
+            else if (f[0].equals("settle")) v.onSettlement(draw, Integer.parseInt(f[2]), Integer.parseInt(f[3]), lo, hi, win, runningTotal += win);
+            else throw new IOException("bad row type " + f[0]);
+            rows++;
+        }
+        return rows;
+    }
+
+
+    // Re-prepends the bytes consumed while sniffing the format.
+    private static final class StringPrefixReader extends Reader {
+        private final String prefix;
+        private final Reader rest;
+        private int pos;
+
+        StringPrefixReader(String prefix, Reader rest) { this.prefix = prefix; this.rest = rest; }
+
+        @Override public int read(char[] cbuf, int off, int len) throws IOException {
+            if (pos < prefix.length()) {
+                int n = Math.min(len, prefix.length() - pos);
+                prefix.getChars(pos, pos + n, cbuf, off);
+                pos += n;
+                return n;
+            }
+            return rest.read(cbuf, off, len);
+        }
+        @Override public void close() throws IOException { rest.close(); }
+    }
+
+
+    private static void writeFully(WritableByteChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+    }
+
+
+    private static void readFully(ReadableByteChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) if (ch.read(b) < 0) throw new EOFException("truncated export");
+    }
+}
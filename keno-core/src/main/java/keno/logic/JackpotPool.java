@@ -0,0 +1,105 @@
+package keno.logic;
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+// Progressive jackpot for the 10-spot top prize. Every wager contributes contributionBps basis points into striped,
+// cache-line-padded counters, so contributions from many threads never contend on one word and never lock.
+// Contributions are kept in 1/10000 cent so fractional cents carry over instead of being rounded away.
+// claim() drains each stripe with getAndSet(0): a concurrent contribution lands either in this claim or in the
+// next one, never in both or neither. Claims are serialized, so each contribution is paid out exactly once.
+public class JackpotPool {
+    private static final long UNIT = 10_000;     // contribution units per cent
+    private static final int PAD = 8;            // longs per stripe: one 64-byte line
+
+    private final long seedCents;
+    private final int bps;
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private volatile long base;                  // cents credited since the last claim (the seed, plus carried residue)
+    private volatile long claims, paidCents;
+
+
+    public JackpotPool(long seedCents, int contributionBps) {
+        if (seedCents<0) throw new IllegalArgumentException("seedCents");
+        if (contributionBps<0||contributionBps>10_000) throw new IllegalArgumentException("contributionBps");
+        this.seedCents = seedCents;
+        this.bps = contributionBps;
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.stripes = new AtomicLongArray(n * PAD);
+        this.mask = n - 1;
+        this.base = seedCents;
+    }
+
+
+    public void contribute(long wagerCents) {
+        if (wagerCents<=0) return;
+        stripes.getAndAdd(stripe() * PAD, wagerCents * bps);
+    }
+
+
+    private int stripe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+
+    // Current pool in cents; a plain read of the stripes, cheap enough to poll for display.
+    public long value() {
+        long units = 0;
+        for (int i=0;i<stripes.length();i+=PAD) units += stripes.get(i);
+        return base + units / UNIT;
+    }
+
+
+    // Pays out the whole pool and restarts it from the seed. Sub-cent residue stays in the pool.
+    public synchronized long claim() {
+        long units = 0;
+        for (int i=0;i<stripes.length();i+=PAD) units += stripes.getAndSet(i, 0);
+        long amount = base + units / UNIT;
+        stripes.getAndAdd(0, units % UNIT);
+        base = seedCents;
+        claims++;
+        paidCents += amount;
+        return amount;
+    }
+
+
+    // Pays every 10-of-10 ticket in a settled book its fixed prize plus a share of the pool proportional to its
+    // wager, so a jackpot hit never pays less than the paytable. Shares are floored and the leftover cents go one
+    // each to the winners in ticket order. Returns the summary adjusted for the changed payouts.
+    public BulkSettlement.Summary payWinners(TicketBook book, NumberMask drawn, long[] payouts, BulkSettlement.Summary summary) {
+        long[] lo = book.loColumn(), hi = book.hiColumn();
+        byte[] spots = book.spotsColumn();
+        int first = -1;
+        long staked = 0;
+        for (int i=0;i<book.size();i++) {
+            if (spots[i] == 10 && NumberMask.hits(lo[i], hi[i], drawn.lo(), drawn.hi()) == 10) { staked += book.wager(i); if (first < 0) first = i; }
+        }
+        if (first < 0) return summary;
+        long pot = claim(), left = pot, liability = summary.liability();
+        int winners = summary.winners();
+        for (int i=first;i<book.size();i++) {
+            if (spots[i] != 10 || NumberMask.hits(lo[i], hi[i], drawn.lo(), drawn.hi()) != 10) continue;
+            long share = Math.multiplyExact(pot, book.wager(i)) / staked;
+            left -= share;
+            if (payouts[i] == 0) winners++;
+            liability += share;
+            payouts[i] += share;
+        }
+        for (int i=first;left>0;i++) {
+            if (spots[i] != 10 || NumberMask.hits(lo[i], hi[i], drawn.lo(), drawn.hi()) != 10) continue;
+            payouts[i]++;
+            liability++;
+            left--;
+        }
+        return new BulkSettlement.Summary(summary.tickets(), winners, summary.wagered(), liability);
+    }
+
+
+    public long seedCents() { return seedCents; }
+    public int contributionBps() { return bps; }
+    public long claims() { return claims; }
+    public long paidCents() { return paidCents; }
+}
@@ -0,0 +1,67 @@
+package keno.logic;
+
+
+import jdk.jfr.*;
+
+
+// Flight Recorder events for the engine hot paths, off unless -Dkeno.events=true. The switch is a static final,
+// so with it off the JIT drops the event code from draw20/settle/record entirely and the kernels stay
+// allocation-free. When on, each event ships with a 20 us threshold and only outliers are recorded by default;
+// lower it to trace every call, e.g. -XX:StartFlightRecording:keno.Draw#threshold=0ms.
+final class KenoEvents {
+    static final boolean ON = Boolean.getBoolean("keno.events");
+
+
+    private KenoEvents() { }
+
+
+    @Name("keno.Draw") @Label("Keno Draw") @Category("Keno")
+    @Threshold("20 us") @StackTrace(false)
+    static final class Draw extends Event {
+        @Label("Draw Index") long drawIndex;   // -1 unless the engine is counter-based
+        @Label("Numbers 1-64") long lo;
+        @Label("Numbers 65-80") long hi;
+
+        static Draw started() { Draw e = new Draw(); e.begin(); return e; }
+
+        void end(long drawIndex, long lo, long hi) {
+            if (!shouldCommit()) return;
+            this.drawIndex = drawIndex; this.lo = lo; this.hi = hi;
+            commit();
+        }
+    }
+
+
+    @Name("keno.Settle") @Label("Keno Settlement") @Category("Keno")
+    @Threshold("20 us") @StackTrace(false)
+    static final class Settle extends Event {
+        @Label("Spots") int spots;
+        @Label("Matches") int matches;
+        @Label("Win") int win;
+
+        static Settle started() { Settle e = new Settle(); e.begin(); return e; }
+
+        void end(int spots, int matches, int win) {
+            if (!shouldCommit()) return;
+            this.spots = spots; this.matches = matches; this.win = win;
+            commit();
+        }
+    }
+
+
+    @Name("keno.StatsRecord") @Label("Keno Stats Record") @Category("Keno")
+    @Threshold("20 us") @StackTrace(false)
+    static final class StatsRecord extends Event {
+        @Label("Spots") int spots;
+        @Label("Matches") int matches;
+        @Label("Win") long win;
+
+        static StatsRecord started() { StatsRecord e = new StatsRecord(); e.begin(); return e; }
+
+        void end(int spots, int matches, long win) {
+            if (!shouldCommit()) return;
+            this.spots = spots; this.matches = matches; this.win = win;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package keno.logic;
+
+
+import java.util.*;
+
+
+public class KenoGame {
+    public static final int[] SPOTS = {1, 4, 8, 10};
+    public static final int MAX_DRAWINGS = 4;
+    public static final int MAX_AUTO_DRAWINGS = 1000;
+    private int spots; private int drawings; private int currentDraw = 0; private boolean running = false;
+
+
+    public void configure(int spots, int drawings) {
+        if (drawings<1||drawings>MAX_DRAWINGS) throw new IllegalArgumentException("drawings");
+        setup(spots, drawings);
+    }
+
+
+    // Auto-play runs many consecutive drawings on one bet card.
+    public void configureAutoPlay(int spots, int drawings) {
+        if (drawings<1||drawings>MAX_AUTO_DRAWINGS) throw new IllegalArgumentException("drawings");
+        setup(spots, drawings);
+    }
+
+
+    private void setup(int spots, int drawings) {
+        if (!(spots==1||spots==4||spots==8||spots==10)) throw new IllegalArgumentException("spots");
+        this.spots = spots; this.drawings = drawings; this.currentDraw = 0; this.running = false;
+    }
+
+
+    public void start() { running = true; currentDraw = 0; }
+    public void stop() { running = false; }
+
+
+    public MatchResult computeResult(Set<Integer> picks, Set<Integer> drawn) {
+        KenoEvents.Settle ev = KenoEvents.ON ? KenoEvents.Settle.started() : null;
+        NumberMask hits = NumberMask.of(picks).retainAll(drawn);
+        int k = hits.size();
+        int win = advance(k);
+        if (ev != null) ev.end(spots, k, win);
+        return new MatchResult(currentDraw, hits.toSet(), k, win);
+    }
+
+
+    // Allocation-free settlement of one drawing; returns the prize and advances the draw counter like computeResult.
+    public int settle(NumberMask picks, NumberMask drawn) {
+        KenoEvents.Settle ev = KenoEvents.ON ? KenoEvents.Settle.started() : null;
+        int k = picks.hits(drawn);
+        int win = advance(k);
+        if (ev != null) ev.end(spots, k, win);
+        return win;
+    }
+
+
+    private int advance(int k) {
+        currentDraw++;
+        int win = PayoutTable.payout(spots, k);
+        if (currentDraw>=drawings) running = false;
+        return win;
+    }
+
+
+    public boolean hasNext() { return running && currentDraw < drawings; }
+    public boolean isRunning() { return running; }
+    public int getCurrentDraw() { return currentDraw; }
+    public int getDrawings() { return drawings; }
+    public int getSpots() { return spots; }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package keno.logic;
+
+
+import keno.util.LatencyHistogram;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// Counters fed at the edges of the engine, never from the draw20/settle kernels, so simulations and bulk workers
+// pay nothing: DrawRoom and KenoServer count draws, BulkSettlement counts whole books, and per-player settlement
+// (server sessions, the game screen) counts single tickets. That is one LongAdder update per draw or settlement
+// call. Money is in cents, so RTP is paid / wagered. Latency needs two nanoTime reads per call, so it is only
+// recorded while timing is on (-Dkeno.metrics.timing=true or the MBean's Timing attribute).
+// get() is the process-wide instance that register() exposes over JMX; components can be given their own.
+public final class KenoMetrics implements KenoMetricsMBean {
+    public static final String OBJECT_NAME = "keno:type=Metrics";
+    private static final KenoMetrics GLOBAL = new KenoMetrics();
+
+    private final LongAdder draws = new LongAdder(), tickets = new LongAdder(), wagered = new LongAdder(), paid = new LongAdder();
+    private final LatencyHistogram drawLatency = new LatencyHistogram(), settleLatency = new LatencyHistogram();
+    private volatile boolean timing = Boolean.getBoolean("keno.metrics.timing");
+
+
+    public static KenoMetrics get() { return GLOBAL; }
+
+
+    // Registers the process-wide instance with the platform MBean server (idempotent); timing is left as it is.
+    public static synchronized KenoMetrics register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(GLOBAL, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+        }
+        return GLOBAL;
+    }
+
+
+    // Start stamp for a timed call, 0 when timing is off.
+    public long start() { return timing ? System.nanoTime() : 0; }
+
+
+    public void drew(long t0) {
+        draws.increment();
+        if (t0 != 0) drawLatency.record(System.nanoTime() - t0);
+    }
+
+
+    // One settlement call covering `tickets` tickets (a whole book, or a single player's ticket).
+    public void settled(int tickets, long wageredCents, long paidCents, long t0) {
+        this.tickets.add(tickets);
+        wagered.add(wageredCents);
+        paid.add(paidCents);
+        if (t0 != 0) settleLatency.record(System.nanoTime() - t0);
+    }
+
+
+    // Money paid outside a settlement call, e.g. jackpot shares on top of the fixed prizes.
+    public void paid(long cents) { paid.add(cents); }
+
+
+    public LatencyHistogram drawLatency() { return drawLatency; }
+    public LatencyHistogram settleLatency() { return settleLatency; }
+
+    @Override public long getDraws() { return draws.sum(); }
+    @Override public long getTicketsSettled() { return tickets.sum(); }
+    @Override public long getWageredCents() { return wagered.sum(); }
+    @Override public long getPaidCents() { return paid.sum(); }
+    @Override public double getRtp() { long w = wagered.sum(); return w == 0 ? 0 : (double) paid.sum() / w; }
+
+    @Override public boolean isTiming() { return timing; }
+    @Override public void setTiming(boolean on) { timing = on; }
+
+    @Override public long getDrawLatencyP50() { return drawLatency.percentile(50); }
+    @Override public long getDrawLatencyP99() { return drawLatency.percentile(99); }
+    @Override public long getDrawLatencyP999() { return drawLatency.percentile(99.9); }
+    @Override public long getDrawLatencyMax() { return drawLatency.max(); }
+    @Override public long getSettleLatencyP50() { return settleLatency.percentile(50); }
+    @Override public long getSettleLatencyP99() { return settleLatency.percentile(99); }
+    @Override public long getSettleLatencyP999() { return settleLatency.percentile(99.9); }
+    @Override public long getSettleLatencyMax() { return settleLatency.max(); }
+
+
+    @Override
+    public void reset() {
+        draws.reset(); tickets.reset(); wagered.reset(); paid.reset();
+        drawLatency.reset(); settleLatency.reset();
+    }
+}
@@ -0,0 +1,26 @@
+package keno.logic;
+
+
+// JMX view of KenoMetrics, registered as "keno:type=Metrics". Money is in cents; latencies are nanoseconds per
+// draw or settlement call and stay 0 until timing is on.
+public interface KenoMetricsMBean {
+    long getDraws();
+    long getTicketsSettled();
+    long getWageredCents();
+    long getPaidCents();
+    double getRtp();
+
+    boolean isTiming();
+    void setTiming(boolean timing);
+
+    long getDrawLatencyP50();
+    long getDrawLatencyP99();
+    long getDrawLatencyP999();
+    long getDrawLatencyMax();
+    long getSettleLatencyP50();
+    long getSettleLatencyP99();
+    long getSettleLatencyP999();
+    long getSettleLatencyMax();
+
+    void reset();
+}
@@ -0,0 +1,76 @@
+package keno.logic;
+
+
+import java.util.*;
+
+
+// 128-bit set of keno numbers 1..80: bit (n-1) of lo for 1..64, bit (n-65) of hi for 65..80.
+public final class NumberMask {
+    private long lo, hi;
+
+
+    public NumberMask() {}
+    public NumberMask(long lo, long hi) { this.lo = lo; this.hi = hi; }
+
+
+    public static NumberMask of(Collection<Integer> numbers) {
+        NumberMask m = new NumberMask();
+        for (int n : numbers) m.add(n);
+        return m;
+    }
+
+
+    public void add(int n) {
+        check(n);
+        if (n <= 64) lo |= 1L << (n - 1); else hi |= 1L << (n - 65);
+    }
+
+
+    public void remove(int n) {
+        check(n);
+        if (n <= 64) lo &= ~(1L << (n - 1)); else hi &= ~(1L << (n - 65));
+    }
+
+
+    public boolean contains(int n) {
+        if (n < 1 || n > 80) return false;
+        return n <= 64 ? (lo >>> (n - 1) & 1L) != 0 : (hi >>> (n - 65) & 1L) != 0;
+    }
+
+
+    // Keeps only the numbers also present in c; values outside 1..80 in c are simply ignored.
+    public NumberMask retainAll(Collection<Integer> c) {
+        long l = lo, h = hi;
+        while (l != 0) { int b = Long.numberOfTrailingZeros(l); l &= l - 1; if (!c.contains(b + 1)) lo &= ~(1L << b); }
+        while (h != 0) { int b = Long.numberOfTrailingZeros(h); h &= h - 1; if (!c.contains(b + 65)) hi &= ~(1L << b); }
+        return this;
+    }
+
+
+    public int size() { return Long.bitCount(lo) + Long.bitCount(hi); }
+    public int hits(NumberMask other) { return hits(lo, hi, other.lo, other.hi); }
+    public static int hits(long lo1, long hi1, long lo2, long hi2) { return Long.bitCount(lo1 & lo2) + Long.bitCount(hi1 & hi2); }
+
+
+    public void set(long lo, long hi) { this.lo = lo; this.hi = hi; }
+    public void clear() { lo = 0; hi = 0; }
+    public long lo() { return lo; }
+    public long hi() { return hi; }
+
+
+    public Set<Integer> toSet() {
+        Set<Integer> s = new TreeSet<>();
+        long l = lo, h = hi;
+        while (l != 0) { s.add(Long.numberOfTrailingZeros(l) + 1); l &= l - 1; }
+        while (h != 0) { s.add(Long.numberOfTrailingZeros(h) + 65); h &= h - 1; }
+        return s;
+    }
+
+
+    private static void check(int n) { if (n<1||n>80) throw new IllegalArgumentException("n"); }
+
+
+    @Override public boolean equals(Object o) { return o instanceof NumberMask m && m.lo == lo && m.hi == hi; }
+    @Override public int hashCode() { return Long.hashCode(lo) * 31 + Long.hashCode(hi); }
+    @Override public String toString() { return toSet().toString(); }
+}
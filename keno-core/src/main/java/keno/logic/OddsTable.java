@@ -0,0 +1,109 @@
+package keno.logic;
+
+
+import java.math.*;
+
+
+// Exact hypergeometric odds for every spot count (80 numbers, 20 drawn), computed once with BigInteger
+// and frozen into primitive tables so queries are plain array reads. Money figures (EV, RTP, sd) depend on
+// the payout schedule; each schedule keeps its own table once asked for, so switching between schedules costs
+// nothing after the first query and a dropped schedule takes its table with it.
+public final class OddsTable {
+    public static final int MAX_SPOTS = 10;
+    private static final BigInteger TOTAL = choose(80, 20);
+    private static final MathContext MC = MathContext.DECIMAL128;
+    private static final double[][] PROB = new double[MAX_SPOTS + 1][];
+    private static final BigInteger[][] WAYS = new BigInteger[MAX_SPOTS + 1][];
+    static {
+        BigDecimal total = new BigDecimal(TOTAL);
+        for (int s=1;s<=MAX_SPOTS;s++) {
+            PROB[s] = new double[s + 1];
+            WAYS[s] = new BigInteger[s + 1];
+            for (int k=0;k<=s;k++) {
+                WAYS[s][k] = choose(s, k).multiply(choose(80 - s, 20 - k));
+                PROB[s][k] = new BigDecimal(WAYS[s][k]).divide(total, MC).doubleValue();
+            }
+        }
+    }
+
+    private final PaySchedule schedule;
+    private final double[] ev = new double[MAX_SPOTS + 1];
+    private final double[] sd = new double[MAX_SPOTS + 1];
+
+
+    private OddsTable(PaySchedule schedule) {
+        this.schedule = schedule;
+        BigDecimal total = new BigDecimal(TOTAL);
+        for (int s=1;s<=MAX_SPOTS;s++) {
+            BigInteger sum = BigInteger.ZERO, sumSq = BigInteger.ZERO;
+            for (int k=0;k<=s;k++) {
+                BigInteger pay = BigInteger.valueOf(schedule.prize(s, k));
+                sum = sum.add(WAYS[s][k].multiply(pay));
+                sumSq = sumSq.add(WAYS[s][k].multiply(pay).multiply(pay));
+            }
+            // Var = E[X²] - E[X]², kept exact until the final division
+            BigDecimal mean = new BigDecimal(sum).divide(total, MC);
+            BigDecimal var = new BigDecimal(sumSq).divide(total, MC).subtract(mean.multiply(mean, MC));
+            ev[s] = mean.doubleValue();
+            sd[s] = var.max(BigDecimal.ZERO).sqrt(MC).doubleValue();
+        }
+    }
+
+
+    // Odds under the currently active payout schedule.
+    public static OddsTable get() { return of(PayoutTable.active()); }
+    public static OddsTable of(PaySchedule schedule) {
+        OddsTable t = schedule.odds;
+        if (t == null) schedule.odds = t = new OddsTable(schedule); // a racing duplicate is identical and harmless
+        return t;
+    }
+
+
+    public PaySchedule schedule() { return schedule; }
+
+
+    public double probability(int spots, int k) {
+        if (spots<1||spots>MAX_SPOTS||k<0||k>spots) return 0;
+        return PROB[spots][k];
+    }
+    public double oneIn(int spots, int k) { double p = probability(spots, k); return p==0 ? Double.POSITIVE_INFINITY : 1 / p; }
+    public BigInteger ways(int spots, int k) { return (spots<1||spots>MAX_SPOTS||k<0||k>spots) ? BigInteger.ZERO : WAYS[spots][k]; }
+    public static BigInteger totalWays() { return TOTAL; }
+
+
+    // Per $1 wager.
+    public double expectedValue(int spots) { return spots<1||spots>MAX_SPOTS ? 0 : ev[spots]; }
+    public double rtp(int spots) { return expectedValue(spots); }
+    public double houseEdge(int spots) { return 1 - rtp(spots); }
+    public double stdDev(int spots) { return spots<1||spots>MAX_SPOTS ? 0 : sd[spots]; }
+
+
+    public double winProbability(int spots) {
+        double p = 0;
+        for (int k=0;k<=Math.min(spots, MAX_SPOTS);k++) if (schedule.prize(spots, k) > 0) p += probability(spots, k);
+        return p;
+    }
+
+
+    public String asTextTable() {
+        StringBuilder sb = new StringBuilder();
+        for (int s : schedule.spots()) {
+            sb.append("Spot ").append(s).append(String.format("  (wins 1 in %.2f, RTP %.2f%%)\n", 1 / winProbability(s), rtp(s) * 100));
+            for (int k=0;k<=s;k++) {
+                int pay = schedule.prize(s, k);
+                if (pay == 0) continue;
+                sb.append(String.format(" %d match%s → $%,d   1 in %,.2f\n", k, (k==1?"":"es"), pay, oneIn(s, k)));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+
+    static BigInteger choose(int n, int k) {
+        if (k<0||k>n) return BigInteger.ZERO;
+        BigInteger r = BigInteger.ONE;
+        for (int i=1;i<=k;i++) r = r.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+        return r;
+    }
+}
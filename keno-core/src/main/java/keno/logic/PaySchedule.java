@@ -0,0 +1,103 @@
+package keno.logic;
+
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+
+// Immutable payout schedule stored densely: prize for (spots, matches) lives at prizes[spots << 4 | matches].
+public final class PaySchedule {
+    public static final int MAX_SPOTS = 10;
+
+    private final String name, title, source;
+    private final int[] prizes = new int[16 * 16];
+    private final int[] spots;
+    volatile OddsTable odds;                    // built on first use by OddsTable.of
+
+
+    private PaySchedule(String name, String title, String source, Map<Integer, Map<Integer,Integer>> table) {
+        this.name = name; this.title = title; this.source = source;
+        table.forEach((s, m) -> m.forEach((k, p) -> prizes[s << 4 | k] = p));
+        this.spots = table.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+
+    public int prize(int spots, int matches) {
+        if (((spots | matches) & ~15) != 0) return 0;
+        return prizes[spots << 4 | matches];
+    }
+
+
+    public String name() { return name; }
+    public String title() { return title; }
+    public String source() { return source; }
+    public int[] spots() { return spots.clone(); }
+
+
+    public String asTextTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(title).append("\n\n");
+        for (int s : spots) {
+            sb.append("Spot ").append(s).append("\n");
+            for (int k=0;k<=s;k++) {
+                int p = prize(s, k);
+                if (p > 0) sb.append(String.format(" %d match%s → $%,d\n", k, (k==1?"":"es"), p));
+            }
+            sb.append("\n");
+        }
+        sb.append("Source: ").append(source);
+        return sb.toString();
+    }
+
+
+    // Format (java.util.Properties): name, title, source and one "spots.<n> = <matches>:<prize>, ..." line per spot count.
+    public static PaySchedule parse(Reader in) throws IOException {
+        Properties p = new Properties();
+        p.load(in);
+        String name = p.getProperty("name");
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("schedule has no name");
+        Map<Integer, Map<Integer,Integer>> table = new TreeMap<>();
+        for (String key : p.stringPropertyNames()) {
+            if (!key.startsWith("spots.")) continue;
+            int s = parseInt(key.substring(6), key);
+            if (s<1||s>MAX_SPOTS) throw new IllegalArgumentException(key + ": spots must be 1.." + MAX_SPOTS);
+            Map<Integer,Integer> row = new TreeMap<>();
+            for (String entry : p.getProperty(key).split(",")) {
+                if (entry.isBlank()) continue;
+                String[] kv = entry.trim().split(":");
+                if (kv.length != 2) throw new IllegalArgumentException(key + ": bad entry '" + entry.trim() + "'");
+                int k = parseInt(kv[0].trim(), key), prize = parseInt(kv[1].trim(), key);
+                if (k<0||k>s) throw new IllegalArgumentException(key + ": matches must be 0.." + s);
+                if (prize<0) throw new IllegalArgumentException(key + ": negative prize");
+                row.put(k, prize);
+            }
+            table.put(s, row);
+        }
+        if (table.isEmpty()) throw new IllegalArgumentException("schedule " + name + " defines no spots");
+        return new PaySchedule(name, p.getProperty("title", name), p.getProperty("source", ""), table);
+    }
+
+
+    public static PaySchedule load(Path file) throws IOException {
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) { return parse(r); }
+    }
+
+
+    static PaySchedule fromResource(String path) {
+        InputStream in = PaySchedule.class.getResourceAsStream(path);
+        if (in == null) throw new IllegalStateException("missing payout resource " + path);
+        try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) { return parse(r); }
+        catch (IOException e) { throw new UncheckedIOException(e); }
+    }
+
+
+    private static int parseInt(String s, String key) {
+        try { return Integer.parseInt(s); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException(key + ": not a number '" + s + "'"); }
+    }
+
+
+    @Override public String toString() { return name; }
+}
@@ -0,0 +1,66 @@
+package keno.logic;
+
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+public class PayoutTable {
+    // Official North Carolina Keno payouts (as of 2025), from keno/payouts/nc.properties
+    public static final String DEFAULT = "nc";
+
+    private static final Map<String, PaySchedule> SCHEDULES = new ConcurrentHashMap<>();
+    // settlements read this once and keep the snapshot, so a swap never affects a settlement in flight
+    private static volatile PaySchedule active;
+    static {
+        PaySchedule nc = PaySchedule.fromResource("/keno/payouts/nc.properties");
+        SCHEDULES.put(nc.name(), nc);
+        active = nc;
+        String extra = System.getProperty("keno.payouts");
+        if (extra != null) {
+            try { active = load(Path.of(extra)); }
+            catch (IOException e) { throw new ExceptionInInitializerError(e); }
+        }
+    }
+
+
+    public static int payout(int spots, int matches) {
+        return active.prize(spots, matches);
+    }
+
+
+    public static PaySchedule active() { return active; }
+    public static Optional<PaySchedule> schedule(String name) { return Optional.ofNullable(SCHEDULES.get(name)); }
+    public static Set<String> scheduleNames() { return new TreeSet<>(SCHEDULES.keySet()); }
+
+
+    // Registers (or replaces) a schedule by name; the active one is only changed by activate().
+    public static synchronized void register(PaySchedule s) {
+        SCHEDULES.put(s.name(), s);
+        if (active.name().equals(s.name())) active = s;
+    }
+
+
+    public static PaySchedule load(Path file) throws IOException {
+        PaySchedule s = PaySchedule.load(file);
+        register(s);
+        return s;
+    }
+
+
+    // Atomically switches the active schedule; returns the one it replaced.
+    public static synchronized PaySchedule activate(String name) {
+        PaySchedule s = SCHEDULES.get(name);
+        if (s == null) throw new IllegalArgumentException("unknown payout schedule " + name);
+        PaySchedule prev = active;
+        active = s;
+        return prev;
+    }
+
+
+    public static String asTextTable() {
+        return active.asTextTable();
+    }
+}
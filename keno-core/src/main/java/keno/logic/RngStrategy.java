@@ -0,0 +1,36 @@
+package keno.logic;
+
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+
+// Random sources selectable per DrawingEngine / BetCard instance.
+public enum RngStrategy {
+    SPLITTABLE, THREAD_LOCAL, SECURE;
+
+
+    public RandomGenerator create() {
+        return switch (this) {
+            case SPLITTABLE -> new SplittableRandom();
+            case THREAD_LOCAL -> CURRENT_THREAD;
+            case SECURE -> new SecureRandom();
+        };
+    }
+
+
+    // ThreadLocalRandom.current() must be called by the thread that uses it, so the held generator resolves it
+    // on every call instead of capturing the creating thread's instance.
+    private static final RandomGenerator CURRENT_THREAD = new RandomGenerator() {
+        @Override public long nextLong() { return ThreadLocalRandom.current().nextLong(); }
+        @Override public int nextInt() { return ThreadLocalRandom.current().nextInt(); }
+        @Override public int nextInt(int bound) { return ThreadLocalRandom.current().nextInt(bound); }
+        @Override public long nextLong(long bound) { return ThreadLocalRandom.current().nextLong(bound); }
+    };
+
+
+    // Deterministic source for replays and tests.
+    public static RandomGenerator seeded(long seed) { return new SplittableRandom(seed); }
+}
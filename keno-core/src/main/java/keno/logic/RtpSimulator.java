@@ -0,0 +1,90 @@
+package keno.logic;
+
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+
+// Headless Monte Carlo check of PayoutTable: fork/join over fixed-size chunks, each with its own split RNG stream.
+public class RtpSimulator {
+    public static final int[] SPOTS = KenoGame.SPOTS;
+    private static final int CHUNK = 1 << 20;
+    private static final double Z95 = 1.959963984540054;
+
+    private final long seed;
+
+
+    public RtpSimulator() { this(new SplittableRandom().nextLong()); }
+    public RtpSimulator(long seed) { this.seed = seed; }
+
+
+    public SimulationReport run(int spots, long draws) {
+        if (!(spots==1||spots==4||spots==8||spots==10)) throw new IllegalArgumentException("spots");
+        if (draws<1) throw new IllegalArgumentException("draws");
+        int chunks = (int) ((draws + CHUNK - 1) / CHUNK);
+        // split sequentially so the same seed gives the same streams regardless of scheduling
+        SplittableRandom root = new SplittableRandom(seed ^ spots);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c=0;c<chunks;c++) streams[c] = root.split();
+
+        PaySchedule schedule = PayoutTable.active();
+        long[] hist = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> simulateChunk(spots, Math.min(CHUNK, draws - (long) c * CHUNK), streams[c]))
+                .reduce(new long[spots + 1], RtpSimulator::sum);
+        return report(schedule, spots, draws, hist);
+    }
+
+
+    public List<SimulationReport> runAll(long drawsPerSpot) {
+        List<SimulationReport> out = new ArrayList<>();
+        for (int s : SPOTS) out.add(run(s, drawsPerSpot));
+        return out;
+    }
+
+
+    private static long[] simulateChunk(int spots, long n, SplittableRandom rng) {
+        // any fixed ticket is equivalent by symmetry, so play 1..spots
+        NumberMask ticket = new NumberMask();
+        for (int i=1;i<=spots;i++) ticket.add(i);
+        NumberMask drawn = new NumberMask();
+        DrawingEngine engine = new DrawingEngine(rng);
+        long[] hist = new long[spots + 1];
+        for (long i=0;i<n;i++) {
+            engine.draw20(drawn);
+            hist[ticket.hits(drawn)]++;
+        }
+        return hist;
+    }
+
+
+    private static long[] sum(long[] a, long[] b) {
+        long[] r = new long[a.length];
+        for (int i=0;i<r.length;i++) r[i] = a[i] + b[i];
+        return r;
+    }
+
+
+    static SimulationReport report(PaySchedule schedule, int spots, long draws, long[] hist) {
+        double mean = 0, sq = 0;
+        for (int k=0;k<=spots;k++) {
+            double p = (double) hist[k] / draws, w = schedule.prize(spots, k);
+            mean += p * w; sq += p * w * w;
+        }
+        double var = Math.max(0, sq - mean * mean);
+        double half = Z95 * Math.sqrt(var / draws);
+        return new SimulationReport(spots, draws, hist, mean, var, mean - half, mean + half);
+    }
+
+
+    public static void main(String[] args) {
+        long draws = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        RtpSimulator sim = args.length > 1 ? new RtpSimulator(Long.parseLong(args[1])) : new RtpSimulator();
+        for (int s : SPOTS) {
+            long t0 = System.nanoTime();
+            SimulationReport r = sim.run(s, draws);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.print(r.summary());
+            System.out.printf(" %.1f M draws/s%n%n", draws / secs / 1e6);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package keno.logic;
+
+
+// Outcome of a Monte Carlo run for one spot count, per $1 wager.
+public record SimulationReport(int spots, long draws, long[] hitCounts, double rtp, double variance, double ciLow, double ciHigh) {
+    public double hitFrequency(int k) { return draws==0 ? 0 : (double) hitCounts[k] / draws; }
+    public double stdDev() { return Math.sqrt(variance); }
+
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Spot %d: %,d draws, RTP %.4f%% (95%% CI %.4f–%.4f%%), sd %.3f\n",
+                spots, draws, rtp * 100, ciLow * 100, ciHigh * 100, stdDev()));
+        for (int k=0;k<=spots;k++)
+            sb.append(String.format(" %2d hits: %.6f\n", k, hitFrequency(k)));
+        return sb.toString();
+    }
+}
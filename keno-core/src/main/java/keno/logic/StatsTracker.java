@@ -0,0 +1,93 @@
+package keno.logic;
+
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+
+// Default mode keeps every MatchResult. Streaming mode (streaming(n)) keeps only the last n in a ring,
+// so memory stays fixed no matter how many draws are recorded. Aggregates are LongAdder-based either way
+// and safe to update from many threads.
+public class StatsTracker {
+    private final LongAdder totalWins = new LongAdder(), wagered = new LongAdder(), results = new LongAdder();
+    private final LongAdder[] hitCounts = new LongAdder[16 * 16]; // [spots << 4 | k], spots 0 = unknown
+    private final AtomicLong streaks = new AtomicLong();          // best win streak << 32 | current win streak
+    private final List<MatchResult> history;
+    private final AtomicReferenceArray<MatchResult> recent;
+    private final AtomicLong recentSeq = new AtomicLong();
+
+
+    public StatsTracker() { this(0); }
+
+
+    private StatsTracker(int recentCapacity) {
+        for (int i=0;i<hitCounts.length;i++) hitCounts[i] = new LongAdder();
+        history = recentCapacity == 0 ? Collections.synchronizedList(new ArrayList<>()) : null;
+        recent = recentCapacity == 0 ? null : new AtomicReferenceArray<>(recentCapacity);
+    }
+
+
+    public static StatsTracker streaming(int recentCapacity) {
+        if (recentCapacity<1) throw new IllegalArgumentException("recentCapacity");
+        return new StatsTracker(recentCapacity);
+    }
+
+
+    public void record(MatchResult mr) { record(0, mr, 1); }
+    public void record(int spots, MatchResult mr) { record(spots, mr, 1); }
+
+
+    // wager is in the same unit as mr.win(); the payout table is per $1, so 1 unless the bet was scaled.
+    public void record(int spots, MatchResult mr, long wager) {
+        if (history != null) history.add(mr);
+        else recent.set((int) (recentSeq.getAndIncrement() % recent.length()), mr);
+        record(spots, mr.k(), mr.win(), wager);
+    }
+
+
+    // Counts a result in the aggregates without keeping it in history(); for bulk imports, where building a
+    // MatchResult per row would cost more than the counting.
+    public void record(int spots, int k, long win, long wager) {
+        KenoEvents.StatsRecord ev = KenoEvents.ON ? KenoEvents.StatsRecord.started() : null;
+        totalWins.add(win);
+        wagered.add(wager);
+        results.increment();
+        if (((spots | k) & ~15) == 0) hitCounts[spots << 4 | k].increment();
+        updateStreak(win > 0);
+        if (ev != null) ev.end(spots, k, win);
+    }
+
+
+    private void updateStreak(boolean won) {
+        long s, n;
+        do {
+            s = streaks.get();
+            int cur = won ? (int) s + 1 : 0;
+            n = Math.max(s >>> 32, cur) << 32 | cur;
+        } while (!streaks.compareAndSet(s, n));
+    }
+
+
+    public long totalWins() { return totalWins.sum(); }
+    public long totalWagered() { return wagered.sum(); }
+    public long count() { return results.sum(); }
+    public double rtp() { long w = wagered.sum(); return w == 0 ? 0 : (double) totalWins.sum() / w; }
+    public long hitCount(int spots, int k) { return ((spots | k) & ~15) != 0 ? 0 : hitCounts[spots << 4 | k].sum(); }
+    public int currentWinStreak() { return (int) streaks.get(); }
+    public int longestWinStreak() { return (int) (streaks.get() >>> 32); }
+    public boolean isStreaming() { return recent != null; }
+
+
+    // Full history in default mode; the most recent results (oldest first) in streaming mode.
+    public List<MatchResult> history() {
+        if (history != null) return Collections.unmodifiableList(history);
+        int cap = recent.length();
+        long end = recentSeq.get();
+        List<MatchResult> out = new ArrayList<>(cap);
+        for (long i = Math.max(0, end - cap); i < end; i++) {
+            MatchResult mr = recent.get((int) (i % cap));
+            if (mr != null) out.add(mr);
+        }
+        return Collections.unmodifiableList(out);
+    }
+}
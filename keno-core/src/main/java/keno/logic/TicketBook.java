@@ -0,0 +1,60 @@
+package keno.logic;
+
+
+import java.util.Arrays;
+
+
+// Columnar store of outstanding tickets: packed pick masks, spot counts, wagers (cents) and the paying account
+// (0 when there is none) in parallel arrays.
+// Appends are not thread-safe; settle only after the book is closed for the draw.
+public class TicketBook {
+    private long[] lo, hi, wager, account;
+    private byte[] spots;
+    private int size;
+
+
+    public TicketBook() { this(1024); }
+    public TicketBook(int capacity) {
+        capacity = Math.max(16, capacity);
+        lo = new long[capacity]; hi = new long[capacity]; wager = new long[capacity]; account = new long[capacity]; spots = new byte[capacity];
+    }
+
+
+    public int add(NumberMask picks, long wagerCents) { return add(picks.lo(), picks.hi(), wagerCents, 0); }
+    public int add(NumberMask picks, long wagerCents, long accountId) { return add(picks.lo(), picks.hi(), wagerCents, accountId); }
+    public int add(long pickLo, long pickHi, long wagerCents) { return add(pickLo, pickHi, wagerCents, 0); }
+
+
+    // Returns the ticket's index, which is also its slot in the payouts array produced by BulkSettlement.
+    public int add(long pickLo, long pickHi, long wagerCents, long accountId) {
+        int s = Long.bitCount(pickLo) + Long.bitCount(pickHi);
+        if (s<1||s>PaySchedule.MAX_SPOTS) throw new IllegalArgumentException("spots");
+        if ((pickHi >>> 16) != 0) throw new IllegalArgumentException("picks");
+        if (wagerCents<=0) throw new IllegalArgumentException("wager");
+        if (size == lo.length) grow();
+        lo[size] = pickLo; hi[size] = pickHi; wager[size] = wagerCents; account[size] = accountId; spots[size] = (byte) s;
+        return size++;
+    }
+
+
+    private void grow() {
+        int n = lo.length * 2;
+        lo = Arrays.copyOf(lo, n); hi = Arrays.copyOf(hi, n); wager = Arrays.copyOf(wager, n); account = Arrays.copyOf(account, n); spots = Arrays.copyOf(spots, n);
+    }
+
+
+    public int size() { return size; }
+    public void clear() { size = 0; }
+    public long pickLo(int i) { return lo[i]; }
+    public long pickHi(int i) { return hi[i]; }
+    public int spots(int i) { return spots[i]; }
+    public long wager(int i) { return wager[i]; }
+    public long account(int i) { return account[i]; }
+
+
+    // Raw column access for the settlement kernels; only the first size() entries are meaningful.
+    long[] loColumn() { return lo; }
+    long[] hiColumn() { return hi; }
+    long[] wagerColumn() { return wager; }
+    byte[] spotsColumn() { return spots; }
+}
@@ -0,0 +1,132 @@
+package keno.server;
+
+
+import keno.logic.*;
+import keno.util.Threads;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// Headless multi-player server: one task (virtual thread where available) per connection, shared timed draws.
+// Line protocol, see PlayerSession for the commands. With a journal, every shared draw is journaled under the
+// counter-based engine's own draw index, so DrawAudit can re-derive the server's draws from the journal's seed.
+public class KenoServer implements Closeable {
+    private final ServerSocket socket;
+    private final long drawIntervalMillis;
+    private final ExecutorService connections = Threads.perTaskExecutor("keno-session");
+    private final ScheduledExecutorService drawTimer = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("keno-draw"));
+    private final Set<PlayerSession> sessions = ConcurrentHashMap.newKeySet();
+    private final DrawingEngine engine;
+    private final DrawJournal journal;
+    private final NumberMask drawn = new NumberMask();
+    private final AtomicLong drawNo = new AtomicLong();
+    private volatile boolean closed;
+
+
+    // port 0 picks a free port; drawIntervalMillis <= 0 means draws only happen through drawNow().
+    public KenoServer(int port, long drawIntervalMillis) throws IOException { this(port, drawIntervalMillis, new DrawingEngine(), null); }
+
+
+    // journal, when given, needs a counter-based engine (e.g. journal.engine()) and is closed with the server.
+    public KenoServer(int port, long drawIntervalMillis, DrawingEngine engine, DrawJournal journal) throws IOException {
+        if (journal != null && !engine.isCounterBased()) throw new IllegalArgumentException("a journaled server needs a counter-based engine");
+        this.socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.drawIntervalMillis = drawIntervalMillis;
+        this.engine = engine;
+        this.journal = journal;
+    }
+
+
+    public KenoServer start() {
+        Thread acceptor = new Thread(this::acceptLoop, "keno-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        if (drawIntervalMillis > 0)
+            drawTimer.scheduleAtFixedRate(this::drawNow, drawIntervalMillis, drawIntervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket s;
+            try {
+                s = socket.accept();
+            } catch (IOException e) {
+                if (!closed) System.err.println("accept failed: " + e.getMessage());
+                continue;
+            }
+            try {
+                s.setTcpNoDelay(true);
+                PlayerSession ps = new PlayerSession(s, sessions::remove, connections);
+                sessions.add(ps);
+                connections.execute(ps);
+            } catch (IOException | RuntimeException e) {
+                // the session never started, so nothing else will close its socket
+                try { s.close(); } catch (IOException ignored) {}
+                if (!closed) System.err.println("session setup failed: " + e.getMessage());
+            }
+        }
+    }
+
+
+    // Runs one shared draw and queues it on every session; each session receives its draws in order. The DRAW line is
+    // formatted once here and the same string goes to every session. Returns the draw number.
+    public synchronized long drawNow() {
+        KenoMetrics metrics = KenoMetrics.get();
+        long t0 = metrics.start(), index = engine.nextDrawIndex();
+        engine.draw20(drawn);
+        metrics.drew(t0);
+        if (journal != null) {
+            try { journal.appendDraw(index, drawn); }
+            catch (IOException e) { System.err.println("journal write failed for draw " + index + ": " + e.getMessage()); }
+        }
+        long no = drawNo.incrementAndGet(), lo = drawn.lo(), hi = drawn.hi();
+        String line = PlayerSession.drawLine(no, lo, hi);
+        for (PlayerSession s : sessions) s.deliver(no, lo, hi, line);
+        return no;
+    }
+
+
+    public int port() { return socket.getLocalPort(); }
+    public int sessionCount() { return sessions.size(); }
+    public long drawCount() { return drawNo.get(); }
+
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        drawTimer.shutdownNow();
+        socket.close();
+        for (PlayerSession s : sessions) s.close();
+        connections.shutdownNow();
+        if (journal != null) {
+            synchronized (this) { journal.close(); }   // after any drawNow in progress
+        }
+    }
+
+
+    // java [-Dkeno.journal=<file>] [-Dkeno.seed=<n>] keno.server.KenoServer [port] [drawIntervalMillis]
+    // A journal continues its own seed; -Dkeno.seed picks the seed of a new journal, or seeds an unjournaled server.
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+        long interval = args.length > 1 ? Long.parseLong(args[1]) : 5000;
+        String path = System.getProperty("keno.journal");
+        Long seed = Long.getLong("keno.seed");
+        DrawJournal journal = path == null ? null
+                : DrawJournal.openSeeded(Path.of(path), 10, seed == null ? OptionalLong.empty() : OptionalLong.of(seed));
+        DrawingEngine engine = journal != null ? journal.engine() : seed != null ? DrawingEngine.counterBased(seed) : new DrawingEngine();
+        KenoServer server = new KenoServer(port, interval, engine, journal).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> { try { server.close(); } catch (IOException ignored) {} }));
+        KenoMetrics.register();
+        System.out.printf("Keno server on 127.0.0.1:%d, draw every %d ms (%s threads)%s%n", server.port(), interval,
+                Threads.virtualThreadsAvailable() ? "virtual" : "platform",
+                journal == null ? "" : ", journal " + path + " seed " + journal.seed().getAsLong());
+        Thread.currentThread().join();
+    }
+}
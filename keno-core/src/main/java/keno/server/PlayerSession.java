@@ -0,0 +1,181 @@
+package keno.server;
+
+
+import keno.logic.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+// One connected player. Commands (one per line) and replies:
+//   SPOTS <1|4|8|10>     -> OK SPOTS <n>
+//   PICK <n> [<n>...]    -> OK PICKS <picks...>      (toggles each number)
+//   QUICK                -> OK PICKS <picks...>
+//   BET <drawings 1-4>   -> OK BET <drawings>        (ticket plays the next shared draws)
+//   STATUS               -> OK STATUS <currentDraw> <drawings> <totalWins>
+//   QUIT                 -> BYE
+// Pushed events: DRAW <no> <20 numbers>, RESULT <no> <drawIndex> <hits> <win>, DONE <totalWins>.
+// Errors are reported as ERR <message> and leave the session open.
+class PlayerSession implements Runnable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private final Consumer<PlayerSession> onClose;
+    private final Executor delivery;
+    private record Draw(long no, long lo, long hi, String line) {}
+
+    private final Queue<Draw> draws = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final BetCard card = new BetCard();
+    private final KenoGame game = new KenoGame();
+    private final StatsTracker stats = StatsTracker.streaming(16);   // lives as long as the connection; totals only
+    private final NumberMask picks = new NumberMask(), drawn = new NumberMask();
+
+
+    PlayerSession(Socket socket, Consumer<PlayerSession> onClose, Executor delivery) throws IOException {
+        this.socket = socket;
+        this.onClose = onClose;
+        this.delivery = delivery;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+    }
+
+
+    @Override
+    public void run() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = handle(line.trim());
+                send(reply);
+                if (reply.equals("BYE")) break;
+            }
+        } catch (IOException ignored) {
+            // client went away
+        } finally {
+            close();
+        }
+    }
+
+
+    synchronized String handle(String line) {
+        String[] t = line.split("\\s+");
+        try {
+            switch (t[0].toUpperCase()) {
+                case "SPOTS" -> {
+                    requireIdle();
+                    card.setSpots(Integer.parseInt(t[1]));
+                    return "OK SPOTS " + card.getSpots();
+                }
+                case "PICK" -> {
+                    requireIdle();
+                    if (card.getSpots() == 0) return "ERR choose spots first";
+                    for (int i=1;i<t.length;i++) card.togglePick(Integer.parseInt(t[i]));
+                    return "OK PICKS " + picksText();
+                }
+                case "QUICK" -> {
+                    requireIdle();
+                    if (card.getSpots() == 0) return "ERR choose spots first";
+                    card.quickFill();
+                    return "OK PICKS " + picksText();
+                }
+                case "BET" -> {
+                    requireIdle();
+                    if (!card.isComplete()) return "ERR pick exactly " + card.getSpots() + " numbers";
+                    game.configure(card.getSpots(), Integer.parseInt(t[1]));
+                    picks.clear();
+                    for (int n : card.getPicks()) picks.add(n);
+                    game.start();
+                    return "OK BET " + game.getDrawings();
+                }
+                case "STATUS" -> { return "OK STATUS " + game.getCurrentDraw() + " " + game.getDrawings() + " " + stats.totalWins(); }
+                case "QUIT" -> { return "BYE"; }
+                default -> { return "ERR unknown command " + t[0]; }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return "ERR missing argument";
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+
+    private void requireIdle() {
+        if (game.isRunning()) throw new IllegalStateException("ticket in play");
+    }
+
+
+    // Queues a shared draw. Only the caller that finds the queue empty schedules a drain, so a single consumer
+    // delivers this session's draws strictly in the order they were queued.
+    // line is the draw's DRAW event as built by drawLine, shared by every session.
+    void deliver(long no, long lo, long hi, String line) {
+        draws.add(new Draw(no, lo, hi, line));
+        if (pending.getAndIncrement() == 0) delivery.execute(this::drain);
+    }
+
+
+    // "DRAW <no> <numbers ascending>\n", read straight off the mask bits.
+    static String drawLine(long no, long lo, long hi) {
+        StringBuilder sb = new StringBuilder(80).append("DRAW ").append(no);
+        for (long m = lo; m != 0; m &= m - 1) sb.append(' ').append(Long.numberOfTrailingZeros(m) + 1);
+        for (long m = hi; m != 0; m &= m - 1) sb.append(' ').append(Long.numberOfTrailingZeros(m) + 65);
+        return sb.append('\n').toString();
+    }
+
+
+    private void drain() {
+        do {
+            Draw d = draws.poll();
+            onDraw(d.no(), d.lo(), d.hi(), d.line());
+        } while (pending.decrementAndGet() != 0);
+    }
+
+
+    private void onDraw(long no, long lo, long hi, String line) {
+        synchronized (this) {
+            try {
+                out.write(line);
+                if (game.hasNext()) {
+                    drawn.set(lo, hi);
+                    NumberMask hits = new NumberMask(picks.lo() & lo, picks.hi() & hi);
+                    long t0 = KenoMetrics.get().start();
+                    int win = game.settle(picks, drawn);
+                    KenoMetrics.get().settled(1, 100, win * 100L, t0);   // a $1 ticket; prizes are per $1
+                    int k = hits.size();
+                    stats.record(game.getSpots(), new MatchResult(game.getCurrentDraw(), hits.toSet(), k, win));
+                    out.write("RESULT " + no + " " + game.getCurrentDraw() + " " + k + " " + win + "\n");
+                    if (!game.hasNext()) out.write("DONE " + stats.totalWins() + "\n");
+                }
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+
+    private synchronized void send(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+
+
+    private String picksText() {
+        StringBuilder sb = new StringBuilder();
+        for (int n : card.getPicks()) { if (sb.length() > 0) sb.append(' '); sb.append(n); }
+        return sb.toString();
+    }
+
+
+    void close() {
+        onClose.accept(this);
+        try { socket.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,74 @@
+package keno.util;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// Concurrent log-linear histogram of nanosecond latencies: exact below 32 ns, then 32 sub-buckets per power of two
+// (about 3% relative error). Fixed 15 KB footprint, lock-free record(); percentiles report the bucket's upper bound.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5, SUB = 1 << SUB_BITS;
+    private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BITS) * SUB);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(index(nanos));
+        count.increment();
+        sum.add(nanos);
+        if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+    }
+
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - SUB_BITS + 1) * SUB + (int) (v >>> (e - SUB_BITS) & (SUB - 1));
+    }
+
+
+    static long upperBound(int i) {
+        if (i < SUB) return i;
+        int shift = i / SUB - 1;
+        return ((long) (SUB + i % SUB) << shift) + (1L << shift) - 1;
+    }
+
+
+    public long count() { return count.sum(); }
+    public long max() { return max.get(); }
+    public double mean() { long n = count.sum(); return n == 0 ? 0 : (double) sum.sum() / n; }
+
+
+    // p in [0, 100]; 0 when nothing has been recorded. Never above max().
+    public long percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("p");
+        long n = 0;
+        for (int i=0;i<buckets.length();i++) n += buckets.get(i);
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * n)), seen = 0;
+        for (int i=0;i<buckets.length();i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+
+    // Not atomic with respect to concurrent record() calls; a sample racing the reset may land on either side.
+    public void reset() {
+        for (int i=0;i<buckets.length();i++) buckets.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+
+    public String summary() {
+        return String.format("n=%,d mean=%.1f us p50=%.1f us p99=%.1f us p99.9=%.1f us max=%.1f us", count(), mean() / 1e3,
+                percentile(50) / 1e3, percentile(99) / 1e3, percentile(99.9) / 1e3, max() / 1e3);
+    }
+}
@@ -0,0 +1,33 @@
+package keno.util;
+
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class Threads {
+    // One thread per task: virtual threads when the runtime has them (JDK 21+), otherwise a cached pool of daemon threads.
+    public static ExecutorService perTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonFactory(name));
+        }
+    }
+
+
+    public static boolean virtualThreadsAvailable() {
+        try { Executors.class.getMethod("newVirtualThreadPerTaskExecutor"); return true; }
+        catch (NoSuchMethodException e) { return false; }
+    }
+
+
+    public static ThreadFactory daemonFactory(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
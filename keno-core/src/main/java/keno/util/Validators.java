@@ -0,0 +1,10 @@
+package keno.util;
+
+
+import keno.logic.KenoGame;
+
+
+public class Validators {
+    public static boolean validDrawings(Integer d) { return d!=null && d>=1 && d<=KenoGame.MAX_DRAWINGS; }
+    public static boolean validAutoDrawings(Integer d) { return d!=null && d>=1 && d<=KenoGame.MAX_AUTO_DRAWINGS; }
+}
\ No newline at end of file
@@ -0,0 +1,1449 @@
+package keno;
+
+
+import keno.load.LoadTest;
+import keno.logic.*;
+import keno.util.LatencyHistogram;
+import keno.util.Validators;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.LongStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class LogicTests {
+    private BetCard card;
+    private DrawingEngine engine;
+
+    @BeforeEach
+    void setup() {
+        card = new BetCard();
+        engine = new DrawingEngine();
+    }
+
+    @Test
+    void bc_setValidSpots_1() { card.setSpots(1); assertEquals(1, card.getSpots()); }
+
+    @Test
+    void bc_setValidSpots_4() { card.setSpots(4); assertEquals(4, card.getSpots()); }
+
+    @Test
+    void bc_setValidSpots_8() { card.setSpots(8); assertEquals(8, card.getSpots()); }
+
+    @Test
+    void bc_setValidSpots_10() { card.setSpots(10); assertEquals(10, card.getSpots()); }
+
+    @Test
+    void bc_setSpots_clearsPicks() {
+        card.setSpots(4);
+        card.togglePick(1);
+        card.togglePick(2);
+        assertEquals(2, card.getPicks().size());
+        card.setSpots(8);
+        assertEquals(0, card.getPicks().size());
+    }
+
+    @Test
+    void bc_togglePick_adds() {
+        card.setSpots(4);
+        assertTrue(card.togglePick(10));
+        assertTrue(card.getPicks().contains(10));
+    }
+
+    @Test
+    void bc_togglePick_removesIfAlreadyPicked() {
+        card.setSpots(4);
+        assertTrue(card.togglePick(7));
+        assertFalse(card.togglePick(7)); // remove
+        assertFalse(card.getPicks().contains(7));
+    }
+
+    @Test
+    void bc_togglePick_refusesWhenFull() {
+        card.setSpots(1);
+        assertTrue(card.togglePick(1));
+        assertFalse(card.togglePick(2));
+        assertEquals(Set.of(1), card.getPicks());
+    }
+
+    @Test
+    void bc_quickFill_completesToSpots() {
+        card.setSpots(4);
+        card.quickFill();
+        assertEquals(4, card.getPicks().size());
+        assertTrue(card.isComplete());
+    }
+
+    @Test
+    void bc_quickFill_doesNothingIfSpotsZero() {
+        card.quickFill();
+        assertEquals(0, card.getPicks().size());
+        assertFalse(card.isComplete());
+    }
+
+    @Test
+    void bc_quickFill_numbersInRange() {
+        card.setSpots(10);
+        card.quickFill();
+        assertTrue(card.getPicks().stream().allMatch(n -> n >= 1 && n <= 80));
+    }
+
+    @Test
+    void bc_isComplete_falseInitially() {
+        assertFalse(card.isComplete());
+    }
+
+    @Test
+    void bc_isComplete_trueWhenAllPicked() {
+        card.setSpots(4);
+        for (int i = 1; i <= 4; i++) card.togglePick(i);
+        assertTrue(card.isComplete());
+    }
+
+    @Test
+    void bc_isComplete_falseWhenUnderfilled() {
+        card.setSpots(4);
+        card.togglePick(1);
+        card.togglePick(2);
+        assertFalse(card.isComplete());
+    }
+
+    @Test
+    void bc_getPicks_unmodifiable() {
+        card.setSpots(4);
+        card.togglePick(5);
+        Set<Integer> picks = card.getPicks();
+        assertThrows(UnsupportedOperationException.class, () -> picks.add(99));
+    }
+
+    @Test
+    void bc_clear_emptiesAndResetsSpots() {
+        card.setSpots(4);
+        card.togglePick(1);
+        card.clear();
+        assertEquals(0, card.getSpots());
+        assertTrue(card.getPicks().isEmpty());
+        assertFalse(card.isComplete());
+    }
+
+    @Test
+    void bc_clear_thenReuse() {
+        card.setSpots(4);
+        card.quickFill();
+        card.clear();
+        assertEquals(0, card.getSpots());
+        card.setSpots(1);
+        card.quickFill();
+        assertEquals(1, card.getPicks().size());
+        assertTrue(card.isComplete());
+    }
+
+    @Test
+    void bc_quickFill_uniqueNumbers() {
+        card.setSpots(8);
+        card.quickFill();
+        assertEquals(card.getPicks().size(), new HashSet<>(card.getPicks()).size());
+    }
+
+    @Test
+    void pt_asTextTable_containsHeadersAndSource() {
+        String s = PayoutTable.asTextTable();
+        assertTrue(s.contains("Official North Carolina Keno Payouts"));
+        assertTrue(s.contains("Spot 1"));
+        assertTrue(s.contains("Spot 4"));
+        assertTrue(s.contains("Spot 8"));
+        assertTrue(s.contains("Spot 10"));
+        assertTrue(s.contains("Source: North Carolina Education Lottery"));
+    }
+
+    @Test
+    void mr_accessors_basic() {
+        Set<Integer> hits = new TreeSet<>(Set.of(2,5,9));
+        MatchResult mr = new MatchResult(1, hits, 3, 12);
+        assertEquals(1, mr.drawIndex());
+        assertEquals(hits, mr.hits());
+        assertEquals(3, mr.k());
+        assertEquals(12, mr.win());
+    }
+
+    @Test
+    void mr_hits_isNotNull() {
+        MatchResult mr = new MatchResult(1, new TreeSet<>(), 0, 0);
+        assertNotNull(mr.hits());
+        assertEquals(0, mr.k());
+        assertEquals(0, mr.win());
+    }
+
+    @Test
+    void mr_emptyHitsKZeroWinZero() {
+        MatchResult mr = new MatchResult(2, Set.of(), 0, 0);
+        assertTrue(mr.hits().isEmpty());
+        assertEquals(0, mr.k());
+        assertEquals(0, mr.win());
+    }
+
+    @Test
+    void mr_nonEmptyConsistency() {
+        Set<Integer> h = Set.of(1,2);
+        MatchResult mr = new MatchResult(3, h, 2, 5);
+        assertEquals(h.size(), mr.k());
+        assertTrue(mr.win() >= 0);
+    }
+
+    @Test
+    void mr_orderIndependentHits() {
+        MatchResult a = new MatchResult(1, new TreeSet<>(Set.of(2,3)), 2, 5);
+        MatchResult b = new MatchResult(1, new TreeSet<>(Set.of(3,2)), 2, 5);
+        assertEquals(a.hits(), b.hits());
+    }
+
+    @Test
+    void mr_drawIndex_incrementsAcrossRounds() {
+        MatchResult m1 = new MatchResult(1, Set.of(), 0, 0);
+        MatchResult m2 = new MatchResult(2, Set.of(), 0, 0);
+        assertTrue(m2.drawIndex() > m1.drawIndex());
+    }
+
+    @Test
+    void kg_configure_validRanges() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 2);
+        assertEquals(2, g.getDrawings());
+        assertEquals(0, g.getCurrentDraw());
+        assertFalse(g.isRunning());
+    }
+
+    @Test
+    void kg_start_setsRunningAndResetsIndex() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 2);
+        g.start();
+        assertTrue(g.isRunning());
+        assertEquals(0, g.getCurrentDraw());
+    }
+
+    @Test
+    void kg_computeResult_incrementsDrawIndex() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 3);
+        g.start();
+        MatchResult r1 = g.computeResult(Set.of(1,2,3,4), Set.of(1,20,30));
+        assertEquals(1, r1.drawIndex());
+        MatchResult r2 = g.computeResult(Set.of(1,2,3,4), Set.of(2,40,50));
+        assertEquals(2, r2.drawIndex());
+        assertTrue(g.hasNext());
+    }
+
+    @Test
+    void kg_computeResult_setsRunningFalseOnLast() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 2);
+        g.start();
+        g.computeResult(Set.of(1,2,3,4), Set.of(1,2));
+        assertTrue(g.isRunning());
+        g.computeResult(Set.of(1,2,3,4), Set.of(3,4));
+        assertFalse(g.isRunning());
+        assertFalse(g.hasNext());
+    }
+
+    @Test
+    void kg_payoutIntegration_spot1_match1_pays2() {
+        KenoGame g = new KenoGame();
+        g.configure(1, 1);
+        g.start();
+        MatchResult r = g.computeResult(Set.of(7), Set.of(7, 10, 20));
+        assertEquals(2, r.win());
+        assertEquals(1, r.k());
+    }
+
+    @Test
+    void kg_payoutIntegration_spot4_match4_pays75() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 1);
+        g.start();
+        MatchResult r = g.computeResult(Set.of(1,2,3,4), Set.of(1,2,3,4,10,11,12));
+        assertEquals(75, r.win());
+        assertEquals(4, r.k());
+    }
+
+    @Test
+    void kg_payoutIntegration_spot8_match7_pays500() {
+        KenoGame g = new KenoGame();
+        g.configure(8, 1);
+        g.start();
+        MatchResult r = g.computeResult(
+                Set.of(1,2,3,4,5,6,7,8),
+                Set.of(1,2,3,4,5,6,7,20,21,22,23,24,25,26,27,28,29,30,31,32));
+        assertEquals(500, r.win());
+        assertEquals(7, r.k());
+    }
+
+    @Test
+    void kg_payoutIntegration_spot10_match10_pays100k() {
+        KenoGame g = new KenoGame();
+        g.configure(10, 1);
+        g.start();
+        MatchResult r = g.computeResult(
+                Set.of(1,2,3,4,5,6,7,8,9,10),
+                Set.of(1,2,3,4,5,6,7,8,9,10,30,31,32,33,34,35,36,37,38,39));
+        assertEquals(100000, r.win());
+        assertEquals(10, r.k());
+    }
+
+    @Test
+    void kg_hasNext_trueWhileUnderDrawCount() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 3);
+        g.start();
+        assertTrue(g.hasNext());
+        g.computeResult(Set.of(1,2,3,4), Set.of(1));
+        assertTrue(g.hasNext());
+        g.computeResult(Set.of(1,2,3,4), Set.of(2));
+        assertTrue(g.hasNext());
+        g.computeResult(Set.of(1,2,3,4), Set.of(3));
+        assertFalse(g.hasNext());
+    }
+
+    @Test
+    void kg_computeResult_hitCountIsIntersectionSize() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 1);
+        g.start();
+        MatchResult r = g.computeResult(Set.of(1,2,3,4), Set.of(2,3,99));
+        assertEquals(2, r.k());
+        assertEquals(Set.of(2,3), r.hits());
+    }
+
+    @Test
+    void kg_computeResult_noHits_noPayout() {
+        KenoGame g = new KenoGame();
+        g.configure(8, 1);
+        g.start();
+        MatchResult r = g.computeResult(Set.of(1,2,3,4,5,6,7,8), Set.of(20,21,22,23));
+        assertEquals(0, r.k());
+        assertEquals(0, r.win());
+        assertTrue(r.hits().isEmpty());
+    }
+
+    @Test
+    void kg_computeResult_lastRound_noHits_stops() {
+        KenoGame g = new KenoGame();
+        g.configure(4, 1);
+        g.start();
+        g.computeResult(Set.of(1,2,3,4), Set.of(20,21,22));
+        assertFalse(g.isRunning());
+    }
+
+    @Test
+    void st_startsZero() {
+        StatsTracker st = new StatsTracker();
+        assertEquals(0, st.totalWins());
+        assertTrue(st.history().isEmpty());
+    }
+
+    @Test
+    void st_recordsSingleMatchResult() {
+        StatsTracker st = new StatsTracker();
+        st.record(new MatchResult(1, Set.of(1), 1, 2));
+        assertEquals(2, st.totalWins());
+        assertEquals(1, st.history().size());
+    }
+
+    @Test
+    void st_accumulatesMultipleResults() {
+        StatsTracker st = new StatsTracker();
+        st.record(new MatchResult(1, Set.of(1), 1, 2));
+        st.record(new MatchResult(2, Set.of(2,3), 2, 5));
+        st.record(new MatchResult(3, Set.of(), 0, 0));
+        assertEquals(7, st.totalWins());
+        assertEquals(3, st.history().size());
+    }
+
+    @Test
+    void st_history_isUnmodifiable() {
+        StatsTracker st = new StatsTracker();
+        st.record(new MatchResult(1, Set.of(1), 1, 2));
+        List<MatchResult> h = st.history();
+        assertThrows(UnsupportedOperationException.class, () -> h.add(new MatchResult(2, Set.of(2), 1, 2)));
+    }
+
+    @Test
+    void st_history_orderPreserved() {
+        StatsTracker st = new StatsTracker();
+        MatchResult a = new MatchResult(1, Set.of(1), 1, 2);
+        MatchResult b = new MatchResult(2, Set.of(2), 1, 2);
+        st.record(a);
+        st.record(b);
+        assertEquals(a, st.history().get(0));
+        assertEquals(b, st.history().get(1));
+    }
+
+    @Test
+    void st_record_zeroWinStillRecorded() {
+        StatsTracker st = new StatsTracker();
+        st.record(new MatchResult(1, Set.of(), 0, 0));
+        assertEquals(0, st.totalWins());
+        assertEquals(1, st.history().size());
+    }
+
+    @Test
+    void st_manyRecords_largeSum() {
+        StatsTracker st = new StatsTracker();
+        int total = 0;
+        for (int i = 1; i <= 20; i++) {
+            int w = i % 2 == 0 ? 5 : 0;
+            total += w;
+            st.record(new MatchResult(i, Set.of(), 0, w));
+        }
+        assertEquals(total, st.totalWins());
+        assertEquals(20, st.history().size());
+    }
+
+    @Test
+    void de_draw20_containsNoZeroOrOver80() {
+        Set<Integer> draw = engine.draw20();
+        assertFalse(draw.contains(0));
+        assertFalse(draw.contains(81));
+        assertTrue(draw.stream().allMatch(n -> n >= 1 && n <= 80));
+    }
+
+    @Test
+    void de_draw20_sizeExactly20_evenAfterManyCalls() {
+        for (int i = 0; i < 25; i++) {
+            assertEquals(20, engine.draw20().size());
+        }
+    }
+
+    @Test
+    void de_draw20_uniqueWithinEachDraw() {
+        for (int i = 0; i < 10; i++) {
+            Set<Integer> d = engine.draw20();
+            assertEquals(d.size(), new HashSet<>(d).size());
+        }
+    }
+
+    @Test
+    void de_multipleDraws_unionReasonable() {
+        // Union after a few draws should be > 20 (not strict, but likely)
+        Set<Integer> union = new HashSet<>();
+        for (int i = 0; i < 5; i++) union.addAll(engine.draw20());
+        assertTrue(union.size() >= 20); // very weak, deterministic
+        assertTrue(union.stream().allMatch(n -> n >= 1 && n <= 80));
+    }
+
+    @Test void drawing_has_20_unique_in_range() {
+        DrawingEngine e = new DrawingEngine();
+        Set<Integer> s = e.draw20();
+        assertEquals(20, s.size());
+        assertTrue(s.stream().allMatch(v -> v>=1 && v<=80));
+    }
+
+
+    @Test void keno_result_intersection_and_payout() {
+        KenoGame g = new KenoGame(); g.configure(4,1);
+        Set<Integer> picks = Set.of(1,2,3,4);
+        Set<Integer> drawn = Set.of(1,2,90,91,92,93,94,95,96,97,98,99,5,6,7,8,9,10,11,12);
+        MatchResult mr = g.computeResult(picks, drawn);
+        assertEquals(2, mr.k());
+        assertTrue(mr.win() >= 0);
+    }
+
+
+    @Test
+    void nm_addContainsAndSize() {
+        NumberMask m = new NumberMask();
+        m.add(1); m.add(64); m.add(65); m.add(80);
+        assertEquals(4, m.size());
+        assertTrue(m.contains(64) && m.contains(65));
+        assertFalse(m.contains(2));
+        assertEquals(Set.of(1,64,65,80), m.toSet());
+    }
+
+    @Test
+    void nm_rejectsOutOfRange() {
+        NumberMask m = new NumberMask();
+        assertThrows(IllegalArgumentException.class, () -> m.add(0));
+        assertThrows(IllegalArgumentException.class, () -> m.add(81));
+    }
+
+    @Test
+    void nm_hitsIsIntersectionSize() {
+        NumberMask a = NumberMask.of(Set.of(1,2,70,80));
+        NumberMask b = NumberMask.of(Set.of(2,3,80));
+        assertEquals(2, a.hits(b));
+    }
+
+    @Test
+    void de_draw20_maskHas20InRange() {
+        NumberMask m = new NumberMask();
+        for (int i = 0; i < 25; i++) {
+            engine.draw20(m);
+            assertEquals(20, m.size());
+            assertTrue(m.toSet().stream().allMatch(n -> n >= 1 && n <= 80));
+        }
+    }
+
+    @Test
+    void kg_settle_matchesComputeResult() {
+        KenoGame a = new KenoGame(); a.configure(8, 2); a.start();
+        KenoGame b = new KenoGame(); b.configure(8, 2); b.start();
+        Set<Integer> picks = Set.of(1,2,3,4,5,6,7,8);
+        Set<Integer> drawn = Set.of(1,2,3,4,5,6,20,21,22,23,24,25,26,27,28,29,30,31,32,33);
+        MatchResult mr = a.computeResult(picks, drawn);
+        assertEquals(mr.win(), b.settle(NumberMask.of(picks), NumberMask.of(drawn)));
+        assertEquals(a.getCurrentDraw(), b.getCurrentDraw());
+    }
+
+    @Test
+    void de_seededEnginesAreDeterministic() {
+        DrawingEngine a = new DrawingEngine(RngStrategy.seeded(42));
+        DrawingEngine b = new DrawingEngine(RngStrategy.seeded(42));
+        for (int i = 0; i < 10; i++) assertEquals(a.draw20(), b.draw20());
+    }
+
+    @Test
+    void de_everyStrategyDraws20Unique() {
+        for (RngStrategy s : RngStrategy.values()) {
+            Set<Integer> d = new DrawingEngine(s).draw20();
+            assertEquals(20, d.size(), s.name());
+            assertTrue(d.stream().allMatch(n -> n >= 1 && n <= 80));
+        }
+    }
+
+    @Test
+    void de_drawsCoverAllNumbersRoughlyEvenly() {
+        DrawingEngine e = new DrawingEngine(RngStrategy.seeded(7));
+        int[] freq = new int[81];
+        for (int i = 0; i < 4000; i++) for (int n : e.draw20()) freq[n]++;
+        // expected 1000 per number; a generous bound still catches a biased shuffle
+        for (int n = 1; n <= 80; n++) assertTrue(freq[n] > 800 && freq[n] < 1200, "n=" + n);
+    }
+
+    @Test
+    void bc_quickFill_keepsExistingPicksWithSeededRng() {
+        BetCard c = new BetCard(RngStrategy.seeded(3));
+        c.setSpots(10);
+        c.togglePick(80);
+        c.quickFill();
+        assertTrue(c.isComplete());
+        assertTrue(c.getPicks().contains(80));
+    }
+
+    @Test
+    void sim_spot1_rtpNearHalf() {
+        SimulationReport r = new RtpSimulator(11).run(1, 200_000);
+        assertEquals(200_000, Arrays.stream(r.hitCounts()).sum());
+        // P(hit) = 1/4 and a hit pays 2, so RTP is exactly 0.5
+        assertTrue(r.ciLow() < 0.5 && 0.5 < r.ciHigh(), r.summary());
+    }
+
+    @Test
+    void sim_sameSeedSameHistogram() {
+        SimulationReport a = new RtpSimulator(5).run(4, 50_000);
+        SimulationReport b = new RtpSimulator(5).run(4, 50_000);
+        assertArrayEquals(a.hitCounts(), b.hitCounts());
+    }
+
+    @Test
+    void ot_probabilitiesSumToOne() {
+        OddsTable t = OddsTable.get();
+        for (int s = 1; s <= 10; s++) {
+            double sum = 0;
+            for (int k = 0; k <= s; k++) sum += t.probability(s, k);
+            assertEquals(1.0, sum, 1e-12, "spots=" + s);
+        }
+    }
+
+    @Test
+    void ot_knownValues() {
+        OddsTable t = OddsTable.get();
+        assertEquals(0.25, t.probability(1, 1), 1e-15);
+        assertEquals(0.5, t.rtp(1), 1e-15);
+        // 10 of 10: C(70,10) / C(80,20) ≈ 1 in 8,911,711
+        assertEquals(8_911_711, t.oneIn(10, 10), 1);
+        assertEquals(0, t.probability(4, 5));
+    }
+
+    @Test
+    void ot_eachScheduleKeepsItsTable() throws Exception {
+        PaySchedule a = PaySchedule.parse(new StringReader("name=a\nspots.1=1:3")), b = PaySchedule.parse(new StringReader("name=b\nspots.1=1:4"));
+        OddsTable ta = OddsTable.of(a), tb = OddsTable.of(b);
+        assertEquals(0.75, ta.rtp(1), 1e-15);
+        assertEquals(1.0, tb.rtp(1), 1e-15);
+        for (int i = 0; i < 3; i++) { assertSame(ta, OddsTable.of(a)); assertSame(tb, OddsTable.of(b)); }
+        assertSame(b, tb.schedule());
+        assertEquals(0.5, OddsTable.get().rtp(1), 1e-15);
+    }
+
+    @Test
+    void ot_agreesWithSimulation() {
+        SimulationReport r = new RtpSimulator(9).run(4, 400_000);
+        double rtp = OddsTable.get().rtp(4);
+        assertTrue(r.ciLow() - 0.01 < rtp && rtp < r.ciHigh() + 0.01, r.summary() + " exact " + rtp);
+    }
+
+    @Test
+    void pt_defaultScheduleMatchesNcTable() {
+        assertEquals("nc", PayoutTable.active().name());
+        assertEquals(2, PayoutTable.payout(1, 1));
+        assertEquals(75, PayoutTable.payout(4, 4));
+        assertEquals(10000, PayoutTable.payout(8, 8));
+        assertEquals(100000, PayoutTable.payout(10, 10));
+        assertEquals(0, PayoutTable.payout(10, 4));
+        assertEquals(0, PayoutTable.payout(3, 1));
+        assertEquals(0, PayoutTable.payout(99, 1));
+        assertEquals(0, PayoutTable.payout(-1, 1));
+    }
+
+    @Test
+    void ps_parseRejectsBadEntries() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PaySchedule.parse(new StringReader("name=x\nspots.4=5:10\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaySchedule.parse(new StringReader("spots.4=4:10\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaySchedule.parse(new StringReader("name=x\nspots.4=4-10\n")));
+    }
+
+    @Test
+    void pt_hotSwapActiveSchedule() throws Exception {
+        PayoutTable.register(PaySchedule.parse(new StringReader(
+                "name=promo\ntitle=Double Fours\nspots.4=2:2, 3:10, 4:150\n")));
+        assertTrue(PayoutTable.scheduleNames().containsAll(Set.of("nc", "promo")));
+        try {
+            PaySchedule prev = PayoutTable.activate("promo");
+            assertEquals("nc", prev.name());
+            assertEquals(150, PayoutTable.payout(4, 4));
+            assertEquals(0, PayoutTable.payout(10, 10));
+            assertTrue(PayoutTable.asTextTable().startsWith("Double Fours"));
+            assertEquals(OddsTable.get().probability(4, 4) * 150 + OddsTable.get().probability(4, 3) * 10
+                    + OddsTable.get().probability(4, 2) * 2, OddsTable.get().rtp(4), 1e-12);
+        } finally {
+            PayoutTable.activate(PayoutTable.DEFAULT);
+        }
+        assertEquals(75, PayoutTable.payout(4, 4));
+        assertThrows(IllegalArgumentException.class, () -> PayoutTable.activate("nope"));
+    }
+
+    @Test
+    void bs_settlesBookLikeSingleTickets() {
+        TicketBook book = new TicketBook(4);
+        BetCard c = new BetCard(RngStrategy.seeded(21));
+        int[] spotCycle = {1, 4, 8, 10};
+        for (int i = 0; i < 100_000; i++) {
+            c.setSpots(spotCycle[i % 4]);
+            c.quickFill();
+            book.add(NumberMask.of(c.getPicks()), 100 * (1 + i % 3));
+        }
+        NumberMask drawn = NumberMask.of(new DrawingEngine(RngStrategy.seeded(22)).draw20());
+        long[] payouts = new long[book.size()];
+        BulkSettlement.Summary sum = new BulkSettlement().settle(book, drawn, payouts);
+
+        long liability = 0, wagered = 0;
+        for (int i = 0; i < book.size(); i++) {
+            int k = NumberMask.hits(book.pickLo(i), book.pickHi(i), drawn.lo(), drawn.hi());
+            long expected = book.wager(i) * PayoutTable.payout(book.spots(i), k);
+            assertEquals(expected, payouts[i]);
+            liability += expected; wagered += book.wager(i);
+        }
+        assertEquals(100_000, sum.tickets());
+        assertEquals(liability, sum.liability());
+        assertEquals(wagered, sum.wagered());
+    }
+
+    @Test
+    void tb_rejectsInvalidTickets() {
+        TicketBook book = new TicketBook();
+        assertThrows(IllegalArgumentException.class, () -> book.add(0L, 0L, 100));
+        assertThrows(IllegalArgumentException.class, () -> book.add(0xFFFL, 0L, 100));
+        assertThrows(IllegalArgumentException.class, () -> book.add(1L, 0L, 0));
+        assertEquals(0, book.add(1L, 0L, 100));
+        assertEquals(1, book.spots(0));
+    }
+
+    @Test
+    void dj_replayRebuildsStats(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keno.journal");
+        StatsTracker live = new StatsTracker();
+        NumberMask picks = NumberMask.of(Set.of(1,2,3,4)), drawn = new NumberMask();
+        DrawingEngine e = new DrawingEngine(RngStrategy.seeded(4));
+        KenoGame g = new KenoGame();
+        g.configure(4, 4);
+        g.start();
+        try (DrawJournal j = DrawJournal.open(file)) {
+            for (int d = 1; d <= 4; d++) {
+                e.draw20(drawn);
+                j.appendDraw(d, drawn);
+                NumberMask hits = new NumberMask(picks.lo() & drawn.lo(), picks.hi() & drawn.hi());
+                int win = g.settle(picks, drawn);
+                live.record(new MatchResult(d, hits.toSet(), hits.size(), win));
+                j.appendSettlement(d, 4, hits.size(), hits, win);
+            }
+            assertEquals(live.totalWins(), j.runningTotal());
+        }
+        StatsTracker replayed = new StatsTracker();
+        assertEquals(8, DrawJournal.replayInto(file, replayed));
+        assertEquals(live.history(), replayed.history());
+        assertEquals(live.totalWins(), replayed.totalWins());
+    }
+
+    @Test
+    void dj_reopenAppendsAfterLastRecord(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keno.journal");
+        try (DrawJournal j = DrawJournal.open(file, 0)) { j.appendSettlement(1, 1, 1, NumberMask.of(Set.of(5)), 2); }
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            assertEquals(1, j.records());
+            assertEquals(2, j.runningTotal());
+            j.appendSettlement(2, 1, 1, NumberMask.of(Set.of(6)), 2);
+            assertEquals(4, j.runningTotal());
+        }
+        long[] draws = new long[1];
+        assertEquals(2, DrawJournal.replay(file, new DrawJournal.Visitor() {
+            @Override public void onSettlement(long d, int s, int k, long lo, long hi, long w, long total) { draws[0] = total; }
+        }));
+        assertEquals(4, draws[0]);
+    }
+
+    @Test
+    void dj_replayStopsAtTornRecordAndReopenDropsTheRest(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keno.journal");
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            for (int i = 0; i < 10; i++) j.appendSettlement(i, 1, 1, NumberMask.of(Set.of(i + 1)), 2);
+        }
+        assertEquals(64 + 10 * 64, Files.size(file));
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{42}), 64 + 5 * 64 + 20);  // body of record 5, type word intact
+        }
+        assertEquals(5, DrawJournal.replay(file, new DrawJournal.Visitor() {}));
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            assertEquals(5, j.records());
+            assertEquals(10, j.runningTotal());
+            j.appendSettlement(5, 1, 1, NumberMask.of(Set.of(6)), 2);
+        }
+        // records 6..9 were intact on disk but must not come back behind the rewritten record 5
+        assertEquals(6, DrawJournal.replay(file, new DrawJournal.Visitor() {}));
+        assertEquals(64 + 6 * 64, Files.size(file));
+    }
+
+    @Test
+    void dj_closeWaitsForGroupCommitAndKeepsEveryRecord(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keno.journal");
+        for (int round = 0; round < 20; round++) {
+            DrawJournal j = DrawJournal.open(file, 1);  // syncer forcing every millisecond while we append and close
+            for (int i = 0; i < 500; i++) j.appendSettlement(i, 1, 1, NumberMask.of(Set.of(1 + i % 80)), 2);
+            j.close();
+            j.close();
+        }
+        assertEquals(20 * 500, DrawJournal.replay(file, new DrawJournal.Visitor() {}));
+    }
+
+    @Test
+    void dj_seededJournalKeepsItsSeedAndResumesTheEngine(@TempDir Path dir) throws Exception {
+        Path seeded = dir.resolve("seeded.journal"), plain = dir.resolve("plain.journal");
+        try (DrawJournal j = DrawJournal.openSeeded(seeded, 0, OptionalLong.empty())) {
+            assertTrue(j.seed().isPresent());
+            DrawingEngine e = j.engine();
+            NumberMask m = new NumberMask();
+            for (int i = 0; i < 3; i++) { e.draw20(m); j.appendDraw(e.nextDrawIndex() - 1, m); }
+        }
+        long seed = DrawJournal.seedOf(seeded).getAsLong();
+        try (DrawJournal j = DrawJournal.openSeeded(seeded, 0, OptionalLong.of(seed))) {
+            assertEquals(3, j.nextDrawNo());
+            NumberMask next = new NumberMask(), expected = new NumberMask();
+            j.engine().draw20(next);
+            DrawingEngine.counterBased(seed).drawAt(3, expected);
+            assertEquals(expected, next);
+        }
+        assertTrue(DrawAudit.audit(seeded).ok());
+
+        try (DrawJournal j = DrawJournal.open(plain, 0)) { j.appendDraw(0, NumberMask.of(Set.of(1))); }
+        assertTrue(DrawJournal.seedOf(plain).isEmpty());
+        assertThrows(java.io.IOException.class, () -> DrawJournal.openSeeded(plain, 0, OptionalLong.of(1)));
+        assertThrows(java.io.IOException.class, () -> DrawAudit.audit(plain));
+        Path empty = dir.resolve("empty.journal");
+        DrawJournal.open(empty, 0).close();
+        try (DrawJournal j = DrawJournal.openSeeded(empty, 0, OptionalLong.of(9))) { assertEquals(OptionalLong.of(9), j.seed()); }
+        assertEquals(OptionalLong.of(9), DrawJournal.seedOf(empty));
+    }
+
+    @Test
+    void st_streamingKeepsOnlyRecentResults() {
+        StatsTracker st = StatsTracker.streaming(3);
+        for (int i = 1; i <= 10; i++) st.record(4, new MatchResult(i, Set.of(), i % 5, i % 2 == 0 ? 5 : 0));
+        assertTrue(st.isStreaming());
+        assertEquals(List.of(8, 9, 10), st.history().stream().map(MatchResult::drawIndex).toList());
+        assertEquals(10, st.count());
+        assertEquals(25, st.totalWins());
+        assertEquals(2.5, st.rtp(), 1e-12);
+        assertEquals(2, st.hitCount(4, 1));
+    }
+
+    @Test
+    void st_totalsDoNotOverflowInt() {
+        StatsTracker st = StatsTracker.streaming(1);
+        for (int i = 0; i < 30_000; i++) st.record(10, new MatchResult(1, Set.of(), 10, 100_000));
+        assertEquals(3_000_000_000L, st.totalWins());
+    }
+
+    @Test
+    void st_winStreaks() {
+        StatsTracker st = new StatsTracker();
+        int[] wins = {1, 2, 0, 5, 5, 5, 0, 1};
+        for (int w : wins) st.record(new MatchResult(1, Set.of(), 1, w));
+        assertEquals(3, st.longestWinStreak());
+        assertEquals(1, st.currentWinStreak());
+    }
+
+    @Test
+    void st_concurrentRecordersAreCounted() throws Exception {
+        StatsTracker st = StatsTracker.streaming(64);
+        MatchResult mr = new MatchResult(1, Set.of(1), 1, 2);
+        Thread[] ts = new Thread[4];
+        for (int t = 0; t < ts.length; t++) {
+            ts[t] = new Thread(() -> { for (int i = 0; i < 50_000; i++) st.record(1, mr); });
+            ts[t].start();
+        }
+        for (Thread t : ts) t.join();
+        assertEquals(200_000, st.count());
+        assertEquals(400_000, st.totalWins());
+        assertEquals(200_000, st.hitCount(1, 1));
+        assertEquals(64, st.history().size());
+    }
+
+    @Test
+    void da_countsMatchRescanOfHistory() {
+        DrawAnalytics a = new DrawAnalytics(10);
+        DrawingEngine e = new DrawingEngine(RngStrategy.seeded(12));
+        e.addListener(a);
+        List<Set<Integer>> draws = new ArrayList<>();
+        for (int i = 0; i < 50; i++) draws.add(e.draw20());
+        assertEquals(50, a.draws(DrawAnalytics.Span.ALL_TIME));
+        assertEquals(10, a.draws(DrawAnalytics.Span.WINDOW));
+        for (int n : List.of(1, 17, 64, 65, 80)) {
+            final int x = n;
+            assertEquals(draws.stream().filter(d -> d.contains(x)).count(), a.frequency(n, DrawAnalytics.Span.ALL_TIME));
+            assertEquals(draws.subList(40, 50).stream().filter(d -> d.contains(x)).count(), a.frequency(n, DrawAnalytics.Span.WINDOW));
+        }
+        assertEquals(draws.stream().filter(d -> d.contains(3) && d.contains(70)).count(), a.pairCount(70, 3, DrawAnalytics.Span.ALL_TIME));
+        assertEquals(draws.subList(40, 50).stream().filter(d -> d.contains(3) && d.contains(70)).count(), a.pairCount(3, 70, DrawAnalytics.Span.WINDOW));
+    }
+
+    @Test
+    void da_hotColdAndPairs() {
+        DrawAnalytics a = new DrawAnalytics(2);
+        NumberMask m = new NumberMask();
+        for (int n = 1; n <= 20; n++) m.add(n);
+        a.onDraw(m.lo(), m.hi());
+        a.onDraw(m.lo(), m.hi());
+        m.clear();
+        for (int n = 61; n <= 80; n++) m.add(n);
+        a.onDraw(m.lo(), m.hi());
+        assertArrayEquals(new int[]{1, 2, 3}, a.hottest(3, DrawAnalytics.Span.ALL_TIME));
+        assertArrayEquals(new int[]{21, 22}, a.coldest(2, DrawAnalytics.Span.ALL_TIME));
+        assertEquals(new DrawAnalytics.Pair(1, 2, 2), a.topPairs(1, DrawAnalytics.Span.ALL_TIME).get(0));
+        assertEquals(1, a.frequency(1, DrawAnalytics.Span.WINDOW));
+        assertEquals(1, a.frequency(80, DrawAnalytics.Span.WINDOW));
+    }
+
+    @Test
+    void kg_autoPlayAllowsHundredsOfDrawings() {
+        KenoGame g = new KenoGame();
+        assertThrows(IllegalArgumentException.class, () -> g.configure(4, 500));
+        g.configureAutoPlay(4, 500);
+        g.start();
+        NumberMask picks = NumberMask.of(Set.of(1,2,3,4)), drawn = new NumberMask();
+        DrawingEngine e = new DrawingEngine(RngStrategy.seeded(8));
+        int n = 0;
+        while (g.hasNext()) { e.draw20(drawn); g.settle(picks, drawn); n++; }
+        assertEquals(500, n);
+        assertThrows(IllegalArgumentException.class, () -> g.configureAutoPlay(4, KenoGame.MAX_AUTO_DRAWINGS + 1));
+    }
+
+    @Test
+    void kg_stopEndsRunEarly() {
+        KenoGame g = new KenoGame();
+        g.configureAutoPlay(1, 100);
+        g.start();
+        g.computeResult(Set.of(1), Set.of(1));
+        g.stop();
+        assertFalse(g.hasNext());
+        assertEquals(1, g.getCurrentDraw());
+    }
+
+    @Test
+    void va_autoDrawingsRange() {
+        assertTrue(Validators.validAutoDrawings(1));
+        assertTrue(Validators.validAutoDrawings(KenoGame.MAX_AUTO_DRAWINGS));
+        assertFalse(Validators.validAutoDrawings(0));
+        assertFalse(Validators.validAutoDrawings(null));
+        assertFalse(Validators.validDrawings(5));
+    }
+
+    @Test
+    void de_counterBasedDrawIsPureFunctionOfIndex() {
+        DrawingEngine seq = DrawingEngine.counterBased(99);
+        List<NumberMask> draws = new ArrayList<>();
+        for (int i = 0; i < 50; i++) { NumberMask m = new NumberMask(); seq.draw20(m); draws.add(m); }
+        DrawingEngine random = DrawingEngine.counterBased(99);
+        NumberMask m = new NumberMask();
+        for (int i : new int[]{49, 0, 17, 17, 3}) {
+            random.drawAt(i, m);
+            assertEquals(draws.get(i), m);
+            assertEquals(20, m.size());
+        }
+        DrawingEngine fromMiddle = DrawingEngine.counterBased(99, 30);
+        fromMiddle.draw20(m);
+        assertEquals(draws.get(30), m);
+        DrawingEngine otherSeed = DrawingEngine.counterBased(100);
+        otherSeed.draw20(m);
+        assertNotEquals(draws.get(0), m);
+        assertThrows(IllegalStateException.class, () -> engine.drawAt(0, new NumberMask()));
+    }
+
+    @Test
+    void de_counterBasedDrawsAreUniform() {
+        DrawingEngine e = DrawingEngine.counterBased(2024);
+        int[] freq = new int[81];
+        for (int i = 0; i < 4000; i++) for (int n : e.draw20()) freq[n]++;
+        for (int n = 1; n <= 80; n++) assertTrue(freq[n] > 800 && freq[n] < 1200, "n=" + n);
+    }
+
+    @Test
+    void da_auditDetectsTamperedDraw(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.journal");
+        DrawingEngine e = DrawingEngine.counterBased(77);
+        NumberMask m = new NumberMask();
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            for (int i = 0; i < 500; i++) {
+                long index = e.nextDrawIndex();
+                e.draw20(m);
+                if (i == 123) m.set(m.lo() ^ 1L, m.hi());
+                j.appendDraw(index, m);
+            }
+        }
+        DrawAudit.Result r = DrawAudit.audit(77, file);
+        assertEquals(500, r.checked());
+        assertEquals(1, r.mismatches());
+        assertEquals(List.of(123L), r.firstMismatches());
+        assertTrue(DrawAudit.verify(77, 1000, 2000, DrawingEngine.counterBased(77)::drawAt).ok());
+    }
+
+    @Test
+    void da_reportsLowestMismatchingIndexes(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.journal");
+        DrawingEngine e = DrawingEngine.counterBased(78);
+        NumberMask m = new NumberMask();
+        // journaled newest first, so the first mismatches met are the highest indexes
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            for (long i = 999; i >= 0; i--) {
+                e.drawAt(i, m);
+                if (i % 3 == 0) m.set(m.lo() ^ 1L, m.hi());
+                j.appendDraw(i, m);
+            }
+        }
+        DrawAudit.Result r = DrawAudit.audit(78, file);
+        assertEquals(334, r.mismatches());
+        assertEquals(LongStream.range(0, 100).map(i -> i * 3).boxed().toList(), r.firstMismatches());
+    }
+
+    @Test
+    void cb_rankUnrankRoundTrip() {
+        assertEquals(1_646_492_110_120L, Combinations.count(10));
+        NumberMask m = new NumberMask();
+        for (int k : new int[]{1, 4, 8, 10}) {
+            long total = Combinations.count(k);
+            for (long r : new long[]{0, 1, total / 3, total - 1}) {
+                Combinations.unrank(r, k, m);
+                assertEquals(k, m.size());
+                assertEquals(r, Combinations.rank(m));
+            }
+        }
+        Combinations.unrank(Combinations.count(10) - 1, 10, m);
+        assertEquals(Set.of(71,72,73,74,75,76,77,78,79,80), m.toSet());
+        assertThrows(IllegalArgumentException.class, () -> Combinations.unrank(Combinations.count(4), 4, new NumberMask()));
+    }
+
+    @Test
+    void cb_forEachEnumeratesEverySubsetOnce() {
+        long[] n = new long[1];
+        Set<Long> ranks = new HashSet<>();
+        Combinations.forEach(2, (lo, hi) -> { n[0]++; ranks.add(Combinations.rank(lo, hi)); });
+        assertEquals(3160, n[0]);
+        assertEquals(3160, ranks.size());
+    }
+
+    @Test
+    void cb_quickPicksAreDistinct() {
+        for (int[] kc : new int[][]{{1, 80}, {2, 3000}, {10, 20_000}}) {
+            TicketBook book = new TicketBook();
+            Combinations.quickPicks(kc[0], kc[1], 100, RngStrategy.seeded(kc[1]), book);
+            assertEquals(kc[1], book.size());
+            Set<Long> ranks = new HashSet<>();
+            for (int i = 0; i < book.size(); i++) {
+                assertEquals(kc[0], book.spots(i));
+                ranks.add(Combinations.rank(book.pickLo(i), book.pickHi(i)));
+            }
+            assertEquals(kc[1], ranks.size());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Combinations.quickPicks(1, 81, 100, RngStrategy.seeded(1), new TicketBook()));
+        // a sparse request too large for the dedup table is rejected up front instead of overflowing its size
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> Combinations.quickPicks(10, Integer.MAX_VALUE, 100, RngStrategy.seeded(1), new TicketBook()));
+        assertTrue(e.getMessage().startsWith("count"), e.getMessage());
+    }
+
+    @Test
+    void lh_percentilesWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(99));
+        for (long v = 1; v <= 10_000; v++) h.record(v * 100);
+        assertEquals(10_000, h.count());
+        assertEquals(1_000_000, h.max());
+        assertEquals(500_050, h.mean(), 1e-6);
+        assertEquals(500_000, h.percentile(50), 500_000 * 0.04);
+        assertEquals(990_000, h.percentile(99), 990_000 * 0.04);
+        assertEquals(1_000_000, h.percentile(100));
+        h.record(7);
+        assertTrue(h.percentile(0) == 7);
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.max());
+    }
+
+    @Test
+    void km_countsAtTheEdgesNotTheKernels() {
+        KenoMetrics m = new KenoMetrics();
+        TicketBook book = new TicketBook(16);
+        book.add(NumberMask.of(Set.of(1, 2, 3, 4)), 200);
+        book.add(NumberMask.of(Set.of(5)), 100);
+        NumberMask drawn = NumberMask.of(Set.of(1, 2, 3, 5, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25));
+        BulkSettlement.Summary s = new BulkSettlement(ForkJoinPool.commonPool(), m).settle(book, drawn, new long[2]);
+        assertEquals(2, m.getTicketsSettled());
+        assertEquals(300, m.getWageredCents());
+        assertEquals(s.liability(), m.getPaidCents());
+        assertEquals(200L * PayoutTable.payout(4, 3) + 100L * PayoutTable.payout(1, 1), m.getPaidCents());
+        assertEquals((double) s.liability() / 300, m.getRtp(), 1e-12);
+        assertEquals(0, m.settleLatency().count());
+
+        // the kernels themselves report nothing
+        KenoGame g = new KenoGame();
+        g.configure(1, 1);
+        g.start();
+        engine.draw20(drawn);
+        g.settle(NumberMask.of(Set.of(5)), drawn);
+        assertEquals(0, m.getDraws());
+        assertEquals(2, m.getTicketsSettled());
+
+        m.setTiming(true);
+        m.drew(m.start());
+        assertEquals(1, m.getDraws());
+        assertEquals(1, m.drawLatency().count());
+        m.reset();
+        assertEquals(0, m.getPaidCents());
+    }
+
+    @Test
+    void km_jfrRecordsDrawAndSettleEvents(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keno.jfr");
+        try (jdk.jfr.Recording r = new jdk.jfr.Recording()) {
+            r.enable("keno.Draw").withThreshold(java.time.Duration.ZERO);
+            r.enable("keno.Settle").withThreshold(java.time.Duration.ZERO);
+            r.start();
+            KenoGame g = new KenoGame();
+            g.configure(4, 2);
+            g.start();
+            NumberMask picks = NumberMask.of(Set.of(1, 2, 3, 4)), drawn = new NumberMask();
+            for (int i = 0; i < 2; i++) { engine.draw20(drawn); g.settle(picks, drawn); }
+            r.stop();
+            r.dump(file);
+        }
+        Map<String, Integer> n = new HashMap<>();
+        for (jdk.jfr.consumer.RecordedEvent e : jdk.jfr.consumer.RecordingFile.readAllEvents(file)) {
+            n.merge(e.getEventType().getName(), 1, Integer::sum);
+            if (e.getEventType().getName().equals("keno.Draw")) assertEquals(20, Long.bitCount(e.getLong("lo")) + Long.bitCount(e.getLong("hi")));
+        }
+        assertEquals(2, n.get("keno.Draw"));
+        assertEquals(2, n.get("keno.Settle"));
+    }
+
+    @Test
+    void ds_roomsDrawOnScheduleAndSettleTickets() throws Exception {
+        try (DrawScheduler sched = new DrawScheduler(2, ForkJoinPool.commonPool())) {
+            int rooms = 300;
+            // listeners run on the settle pool, so they only capture; assertions run on the test thread
+            record Seen(int tickets, long payout, NumberMask drawn) {}
+            BlockingQueue<Seen> firstRound = new LinkedBlockingQueue<>();
+            CountDownLatch secondRound = new CountDownLatch(rooms);
+            NumberMask picks = NumberMask.of(Set.of(1, 2, 3, 4));
+            for (int i = 0; i < rooms; i++) {
+                DrawRoom room = sched.open("room-" + i, java.time.Duration.ofMillis(200), java.time.Duration.ofMillis(50));
+                room.addListener(r -> {
+                    if (r.round() == 0) firstRound.add(new Seen(r.summary().tickets(), r.payouts()[0], r.drawn()));
+                    if (r.round() == 1) secondRound.countDown();
+                });
+                assertEquals(new DrawRoom.Ticket(0, 0), room.placeTicket(picks, 100));
+            }
+            assertTrue(secondRound.await(10, TimeUnit.SECONDS));
+            assertEquals(rooms, firstRound.size());
+            for (Seen r : firstRound) {
+                assertEquals(1, r.tickets());
+                assertEquals(100L * PayoutTable.payout(4, picks.hits(r.drawn())), r.payout());
+            }
+            assertTrue(sched.jitter().count() >= rooms * 2L);
+            // generous on purpose: a single-CPU runner still warming up the JIT sees p99 up to ~170 ms here, while a
+            // stalled or starved timer thread would leave draws seconds late
+            assertTrue(sched.jitter().percentile(99) < 1_000_000_000L, sched.jitter().summary());
+        }
+    }
+
+    @Test
+    void ds_bettingClosesAtCutoff() throws Exception {
+        try (DrawScheduler sched = new DrawScheduler(1, ForkJoinPool.commonPool())) {
+            DrawRoom room = sched.open("r", java.time.Duration.ofMillis(1000), java.time.Duration.ofMillis(900));
+            assertThrows(IllegalArgumentException.class, () -> sched.open("r", java.time.Duration.ofMillis(200), java.time.Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> sched.open("x", java.time.Duration.ofMillis(10), java.time.Duration.ofMillis(10)));
+            assertTrue(room.isBettingOpen());
+            long deadline = System.nanoTime() + 3_000_000_000L;
+            while (room.isBettingOpen() && System.nanoTime() < deadline) Thread.sleep(1);
+            assertThrows(IllegalStateException.class, () -> room.placeTicket(NumberMask.of(Set.of(7)), 100));
+            room.close();
+            assertTrue(sched.room("r").isEmpty());
+            assertThrows(IllegalStateException.class, () -> room.placeTicket(NumberMask.of(Set.of(7)), 100));
+        }
+    }
+
+    @Test
+    void jp_concurrentContributionsAreClaimedExactlyOnce() throws Exception {
+        JackpotPool pool = new JackpotPool(1_000_000, 100); // $10,000 seed, 1% of each wager
+        int threads = 8, perThread = 100_000;
+        AtomicLong claimed = new AtomicLong();
+        AtomicInteger claims = new AtomicInteger();
+        ExecutorService ex = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) ex.execute(() -> {
+            for (int i = 0; i < perThread; i++) pool.contribute(100);
+            done.countDown();
+        });
+        ex.execute(() -> {
+            while (done.getCount() > 0) { claimed.addAndGet(pool.claim()); claims.incrementAndGet(); }
+        });
+        assertTrue(done.await(20, TimeUnit.SECONDS));
+        ex.shutdown();
+        assertTrue(ex.awaitTermination(5, TimeUnit.SECONDS));
+        long total = claimed.get() + pool.claim() - 1_000_000L * (claims.get() + 1);
+        assertEquals((long) threads * perThread, total);
+        assertEquals(1_000_000, pool.value());
+        assertEquals(claims.get() + 1, pool.claims());
+    }
+
+    @Test
+    void jp_fractionalContributionsCarryOver() {
+        JackpotPool pool = new JackpotPool(0, 25);
+        for (int i = 0; i < 3; i++) pool.contribute(100); // 0.25 cent each
+        assertEquals(0, pool.claim());
+        pool.contribute(100);
+        assertEquals(1, pool.value());
+        assertEquals(1, pool.claim());
+        assertThrows(IllegalArgumentException.class, () -> new JackpotPool(0, 10_001));
+    }
+
+    @Test
+    void jp_tenOfTenWinnersSplitThePool() {
+        JackpotPool pool = new JackpotPool(500, 100);
+        pool.contribute(100);
+        TicketBook book = new TicketBook();
+        NumberMask ten = new NumberMask(), drawn = new NumberMask();
+        for (int n = 1; n <= 10; n++) ten.add(n);
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        book.add(ten, 100);
+        book.add(NumberMask.of(Set.of(1, 2, 3, 4)), 100);
+        book.add(ten, 200);
+        long[] payouts = new long[book.size()];
+        BulkSettlement.Summary s = new BulkSettlement().settle(book, drawn, payouts);
+        long[] fixed = payouts.clone();
+        BulkSettlement.Summary adj = pool.payWinners(book, drawn, payouts, s);
+        assertEquals(fixed[0] + 167, payouts[0]);
+        assertEquals(fixed[1], payouts[1]);
+        assertEquals(fixed[2] + 334, payouts[2]);
+        assertEquals(s.liability() + 501, adj.liability());
+        assertEquals(500, pool.value());
+    }
+
+    @Test
+    void jp_smallPoolNeverPaysLessThanTheFixedPrize() {
+        JackpotPool pool = new JackpotPool(10, 0);
+        TicketBook book = new TicketBook();
+        NumberMask ten = new NumberMask(), drawn = new NumberMask();
+        for (int n = 1; n <= 10; n++) ten.add(n);
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        book.add(ten, 100);
+        book.add(ten, 100);
+        book.add(ten, 200);
+        long[] payouts = new long[book.size()];
+        BulkSettlement.Summary s = new BulkSettlement().settle(book, drawn, payouts);
+        long[] fixed = payouts.clone();
+        assertEquals(2 * fixed[0], fixed[2]);
+        BulkSettlement.Summary adj = pool.payWinners(book, drawn, payouts, s);
+        // 10 cents split 1:1:2 is 2.5, 2.5, 5: the odd cent goes to the first winner
+        assertEquals(fixed[0] + 3, payouts[0]);
+        assertEquals(fixed[1] + 2, payouts[1]);
+        assertEquals(fixed[2] + 5, payouts[2]);
+        assertEquals(s.liability() + 10, adj.liability());
+        assertEquals(3, adj.winners());
+    }
+
+    @Test
+    void bl_debitNeverOverdraws() throws Exception {
+        BankrollLedger ledger = new BankrollLedger(100_000);
+        for (long id = 1; id <= 100_000; id++) assertTrue(ledger.open(id));
+        assertFalse(ledger.open(42));
+        assertThrows(IllegalStateException.class, () -> ledger.open(-1));
+        assertThrows(IllegalArgumentException.class, () -> ledger.balance(-1));
+        for (long id = 1; id <= 1000; id++) ledger.credit(id, 1000);
+        int threads = 8;
+        AtomicLong accepted = new AtomicLong();
+        ExecutorService ex = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) ex.execute(() -> {
+            for (int i = 0; i < 200_000; i++) if (ledger.debit(1 + i % 1000, 3)) accepted.incrementAndGet();
+        });
+        ex.shutdown();
+        assertTrue(ex.awaitTermination(20, TimeUnit.SECONDS));
+        for (long id = 1; id <= 1000; id++) assertEquals(1, ledger.balance(id)); // 1000 = 333 × 3 + 1
+        assertEquals(333_000, accepted.get());
+        assertEquals(999_000, ledger.totalDebited());
+        assertEquals(1000, ledger.totalBalance());
+    }
+
+    @Test
+    void bl_roomDebitsWagersAndCreditsPayouts() throws Exception {
+        BankrollLedger ledger = new BankrollLedger(16);
+        ledger.open(7);
+        ledger.credit(7, 250);
+        try (DrawScheduler sched = new DrawScheduler(1, ForkJoinPool.commonPool())) {
+            sched.setLedger(ledger);
+            DrawRoom room = sched.open("r", java.time.Duration.ofMillis(500), java.time.Duration.ZERO);
+            CompletableFuture<Long> paid = new CompletableFuture<>();
+            room.addListener(r -> { if (r.round() == 0) paid.complete(r.payouts()[0] + r.payouts()[1]); });
+            NumberMask picks = NumberMask.of(Set.of(10, 20, 30, 40));
+            room.placeTicket(7, picks, 100);
+            room.placeTicket(7, picks, 100);
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> room.placeTicket(7, picks, 100));
+            assertTrue(e.getMessage().startsWith("insufficient funds"), e.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> room.placeTicket(7, new NumberMask(), 10));
+            assertEquals(50, ledger.balance(7));
+            assertEquals(10, ledger.totalRefunded());
+            long won = paid.get(5, TimeUnit.SECONDS);
+            assertEquals(50 + won, ledger.balance(7));
+            assertEquals(250 + won, ledger.totalCredited());
+        }
+    }
+
+    @Test
+    void bl_closeRefundsTheOpenRoundWithoutFeedingTheJackpot() {
+        BankrollLedger ledger = new BankrollLedger(16);
+        ledger.open(7);
+        ledger.credit(7, 500);
+        JackpotPool pool = new JackpotPool(0, 100);
+        try (DrawScheduler sched = new DrawScheduler(1, ForkJoinPool.commonPool())) {
+            sched.setLedger(ledger);
+            sched.setJackpot(pool);
+            DrawRoom room = sched.open("r", java.time.Duration.ofSeconds(60), java.time.Duration.ZERO);
+            sched.setLedger(new BankrollLedger(16)); // the open round keeps the ledger it debited
+            room.placeTicket(7, NumberMask.of(Set.of(1, 2, 3)), 300);
+            assertEquals(200, ledger.balance(7));
+            room.close();
+            assertEquals(500, ledger.balance(7));
+            assertEquals(300, ledger.totalRefunded());
+            assertEquals(500, ledger.totalCredited());
+            assertEquals(0, pool.value());
+        }
+    }
+
+    @Test
+    void bl_failedCreditDoesNotAbortSettlement() throws Exception {
+        BankrollLedger ledger = new BankrollLedger(16) {
+            @Override public void credit(long accountId, long cents) {
+                if (accountId == 1) throw new IllegalStateException("frozen");
+                super.credit(accountId, cents);
+            }
+        };
+        ledger.open(1);
+        ledger.open(2);
+        ledger.refund(1, 100);
+        ledger.refund(2, 100);
+        NumberMask drawn = new NumberMask();
+        new DrawingEngine(RngStrategy.seeded(5)).draw20(drawn);
+        try (DrawScheduler sched = new DrawScheduler(1, ForkJoinPool.commonPool())) {
+            sched.setLedger(ledger);
+            DrawRoom room = sched.open("r", java.time.Duration.ofMillis(500), java.time.Duration.ZERO, new DrawingEngine(RngStrategy.seeded(5)));
+            CompletableFuture<long[]> paid = new CompletableFuture<>();
+            room.addListener(r -> { throw new IllegalStateException("bad listener"); });
+            room.addListener(r -> paid.complete(r.payouts().clone()));
+            NumberMask picks = NumberMask.of(Set.of(drawn.toSet().iterator().next()));
+            room.placeTicket(1, picks, 100);
+            room.placeTicket(2, picks, 100);
+            long[] payouts = paid.get(5, TimeUnit.SECONDS);
+            assertTrue(payouts[0] > 0);
+            assertEquals(0, ledger.balance(1));
+            assertEquals(payouts[1], ledger.balance(2));
+            assertEquals(1, room.failedCredits());
+        }
+    }
+
+    // Collects every row of a journal or export as text, in order, for comparing the two.
+    private record Rows(List<String> list) implements DrawJournal.Visitor {
+        Rows() { this(new ArrayList<>()); }
+        @Override public void onDraw(long drawNo, long lo, long hi) { list.add("D" + drawNo + ":" + lo + ":" + hi); }
+        @Override public void onSettlement(long d, int spots, int k, long lo, long hi, long win, long total) {
+            list.add("S" + d + ":" + spots + ":" + k + ":" + lo + ":" + hi + ":" + win + ":" + total);
+        }
+    }
+
+    @Test
+    void ha_exportRoundTripsInEveryFormat(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("j.bin");
+        DrawingEngine eng = new DrawingEngine(RngStrategy.seeded(23));
+        NumberMask drawn = new NumberMask(), picks = NumberMask.of(Set.of(3, 33, 66, 80));
+        try (DrawJournal j = DrawJournal.open(file, 0)) {
+            for (int i = 0; i < 35_000; i++) {
+                eng.draw20(drawn);
+                j.appendDraw(i, drawn);
+                NumberMask hits = new NumberMask(picks.lo() & drawn.lo(), picks.hi() & drawn.hi());
+                j.appendSettlement(i, 4, hits.size(), hits, PayoutTable.payout(4, hits.size()));
+            }
+        }
+        Rows expected = new Rows();
+        DrawJournal.replay(file, expected);
+        for (String name : new String[]{"h.kcol", "h.kcol.gz", "h.csv", "h.csv.gz"}) {
+            Path out = dir.resolve(name);
+            assertEquals(70_000, HistoryArchive.export(file, out), name);
+            Rows actual = new Rows();
+            assertEquals(70_000, HistoryArchive.read(out, actual), name);
+            assertEquals(expected.list(), actual.list(), name);
+        }
+        assertTrue(Files.size(dir.resolve("h.kcol")) < Files.size(file));
+        assertTrue(Files.size(dir.resolve("h.kcol.gz")) < Files.size(dir.resolve("h.kcol")));
+        assertTrue(Files.readString(dir.resolve("h.csv")).startsWith("type,draw,spots,k,numbers,win,running_total\n"));
+
+        StatsTracker fromJournal = StatsTracker.streaming(10), fromExport = StatsTracker.streaming(10);
+        DrawJournal.replayInto(file, fromJournal);
+        DrawAnalytics analytics = new DrawAnalytics(50);
+        HistoryArchive.importInto(dir.resolve("h.csv.gz"), fromExport, analytics);
+        assertEquals(fromJournal.count(), fromExport.count());
+        assertEquals(fromJournal.totalWins(), fromExport.totalWins());
+        for (int k = 0; k <= 4; k++) assertEquals(fromJournal.hitCount(4, k), fromExport.hitCount(4, k));
+        assertTrue(fromExport.history().isEmpty());
+        assertEquals(35_000, analytics.draws(DrawAnalytics.Span.ALL_TIME));
+        Files.writeString(dir.resolve("bad.csv"), "nope\n");
+        assertThrows(java.io.IOException.class, () -> HistoryArchive.read(dir.resolve("bad.csv"), new Rows()));
+        Files.writeString(dir.resolve("bad-number.csv"), "type,draw,spots,k,numbers,win,running_total\nsettle,1,4,x,3,0,0\n");
+        assertThrows(java.io.IOException.class, () -> HistoryArchive.read(dir.resolve("bad-number.csv"), new Rows()));
+    }
+
+    @Test
+    void lt_inProcessLoadTestSettlesEveryTicket() throws Exception {
+        LoadTest.Report r = LoadTest.run(new LoadTest.Config(LoadTest.Mode.IN_PROCESS, 500, 20_000, 3, 2, 0.5, 5, 3));
+        assertEquals(0, r.errors());
+        assertEquals(1500, r.tickets());
+        assertEquals(3000, r.settlements());
+        assertEquals(3000, r.settleLatency().count());
+        assertEquals(1500, r.betLatency().count());
+        assertTrue(r.draws() >= 6);
+        assertTrue(r.summary().contains("p99.9="), r.summary());
+        assertThrows(IllegalArgumentException.class, () -> new LoadTest.Config(LoadTest.Mode.IN_PROCESS, 1, 0, 1, 5, 0, 5, 0));
+    }
+
+    @Test
+    void ex_exposureMatchesExactExpectationAndKernelsAgree() {
+        // 64 copies of a ticket fill one bit-sliced group; one ticket at 64x the wager goes through the scalar kernel
+        TicketBook sliced = new TicketBook(1024), scalar = new TicketBook(16);
+        SplittableRandom rng = new SplittableRandom(5);
+        NumberMask m = new NumberMask();
+        for (int s : new int[]{1, 2, 4, 6, 8, 10}) {
+            Combinations.quickPick(s, rng, m);
+            for (int c = 0; c < 64; c++) sliced.add(m, 100);
+            scalar.add(m, 6400);
+        }
+        ExposureCalculator calc = new ExposureCalculator();
+        ExposureCalculator.Report a = calc.evaluate(sliced, PayoutTable.active(), 2000, 9);
+        ExposureCalculator.Report b = calc.evaluate(scalar, PayoutTable.active(), 2000, 9);
+        assertArrayEquals(a.sampled(), b.sampled());
+        assertEquals(a.expectedLiability(), b.expectedLiability(), 1e-6);
+        assertEquals(a.worstCaseBound(), b.worstCaseBound());
+
+        // a heavy 1-spot on 7 dominates the per-number risk; averaging over the drawn number recovers the expectation
+        TicketBook book = new TicketBook(1 << 14);
+        for (int i = 0; i < 10_000; i++) {
+            Combinations.quickPick(1 + (i % 10), rng, m);
+            book.add(m, 100 + 100 * (i % 3));
+        }
+        book.add(NumberMask.of(Set.of(7)), 500_000);
+        ExposureCalculator.Report r = calc.evaluate(book, PayoutTable.active(), 4000, 11);
+        assertEquals(book.size(), r.tickets());
+        assertEquals(4000, r.samples());
+        double sd = r.sampledStdDev() / Math.sqrt(r.samples());
+        assertEquals(r.expectedLiability(), r.sampledMean(), 5 * sd);
+        assertTrue(r.worstCaseBound() >= r.maxSampled());
+        assertEquals(r.maxSampled(), r.percentile(100));
+        assertTrue(r.percentile(50) <= r.percentile(99));
+        assertEquals(7, r.riskiestNumbers(1)[0]);
+        double avg = 0;
+        for (int n = 1; n <= 80; n++) avg += r.conditionalLiability()[n] / 80;
+        assertEquals(r.expectedLiability(), avg, 1e-6 * r.expectedLiability());
+        assertTrue(r.summary().contains("riskiest numbers: 7 "), r.summary());
+        assertThrows(IllegalArgumentException.class, () -> calc.evaluate(book, PayoutTable.active(), -1, 0));
+    }
+
+    @Test
+    void ex_jackpotCountsInWorstCaseAndSampledTenOfTenDraws() {
+        // the first sampled draw of block 0 comes from the seed itself, so a ticket on ten of its numbers hits 10 of 10
+        NumberMask first = new NumberMask(), ten = new NumberMask();
+        new DrawingEngine(new SplittableRandom(3)).draw20(first);
+        first.toSet().stream().sorted().limit(10).forEach(ten::add);
+        TicketBook sliced = new TicketBook(), scalar = new TicketBook(), none = new TicketBook();
+        for (int c = 0; c < 64; c++) sliced.add(ten, 100);
+        scalar.add(ten, 6400);
+        none.add(NumberMask.of(Set.of(1, 2, 3, 4)), 100);
+        ExposureCalculator calc = new ExposureCalculator();
+        long jackpot = 5_000_000;
+        for (TicketBook book : List.of(sliced, scalar)) {
+            ExposureCalculator.Report with = calc.evaluate(book, PayoutTable.active(), 200, 3, jackpot);
+            ExposureCalculator.Report without = calc.evaluate(book, PayoutTable.active(), 200, 3);
+            assertEquals(without.worstCaseBound() + jackpot, with.worstCaseBound());
+            assertEquals(without.maxSampled() + jackpot, with.maxSampled());
+            assertEquals(LongStream.of(without.sampled()).sum() + jackpot, LongStream.of(with.sampled()).sum());
+            assertEquals(without.expectedLiability(), with.expectedLiability(), 1e-9);
+            // one distinct 10-spot set: the jackpot term is exact, the pool times P(10 of 10)
+            double p10 = OddsTable.of(PayoutTable.active()).probability(10, 10);
+            assertEquals(jackpot * p10, with.expectedJackpot(), 1e-12);
+            assertEquals(with.expectedLiability() + jackpot * p10, with.expectedTotal(), 1e-9);
+            assertEquals(0, without.expectedJackpot());
+            assertTrue(with.summary().contains("includes a $50,000.00 jackpot"), with.summary());
+            assertTrue(with.summary().contains("(exact, fixed prizes only)"), with.summary());
+            assertTrue(with.summary().contains("expected jackpot    at most $"), with.summary());
+        }
+        // three distinct sets, one of them doubled, bound the chance of a catch-all at three times P(10 of 10)
+        TicketBook three = new TicketBook();
+        three.add(ten, 100);
+        three.add(ten, 100);
+        three.add(NumberMask.of(Set.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)), 100);
+        three.add(NumberMask.of(Set.of(71, 72, 73, 74, 75, 76, 77, 78, 79, 80)), 100);
+        three.add(NumberMask.of(Set.of(1, 2, 3, 4, 5, 6, 7, 8)), 100);
+        assertEquals(3 * jackpot * OddsTable.of(PayoutTable.active()).probability(10, 10),
+                calc.evaluate(three, PayoutTable.active(), 10, 3, jackpot).expectedJackpot(), 1e-12);
+        ExposureCalculator.Report r = calc.evaluate(none, PayoutTable.active(), 200, 3, jackpot);
+        assertEquals(0, r.jackpot());
+        assertEquals(calc.evaluate(none, PayoutTable.active(), 200, 3).worstCaseBound(), r.worstCaseBound());
+        assertThrows(IllegalArgumentException.class, () -> calc.evaluate(none, PayoutTable.active(), 1, 0, -1));
+    }
+}
@@ -0,0 +1,176 @@
+package keno;
+
+
+import keno.logic.DrawAudit;
+import keno.logic.DrawJournal;
+import keno.logic.NumberMask;
+import keno.load.LoadTest;
+import keno.server.KenoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ServerTests {
+    private KenoServer server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new KenoServer(0, 0).start();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        server.close();
+    }
+
+    private static final class Client implements Closeable {
+        final Socket s; final BufferedReader in; final PrintWriter out;
+        Client(int port) throws IOException {
+            s = new Socket("127.0.0.1", port);
+            s.setSoTimeout(5000);
+            in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII), true);
+        }
+        String call(String cmd) throws IOException { out.println(cmd); return in.readLine(); }
+        public void close() throws IOException { s.close(); }
+    }
+
+    @Test
+    void sv_ticketIsSettledAgainstSharedDraw() throws Exception {
+        try (Client c = new Client(server.port())) {
+            assertEquals("OK SPOTS 4", c.call("SPOTS 4"));
+            assertEquals("OK PICKS 1 2 3 4", c.call("PICK 1 2 3 4"));
+            assertEquals("OK BET 1", c.call("BET 1"));
+            server.drawNow();
+            String draw = c.in.readLine();
+            assertTrue(draw.startsWith("DRAW 1 "), draw);
+            List<Integer> numbers = new ArrayList<>();
+            for (String n : draw.substring(7).split(" ")) numbers.add(Integer.parseInt(n));
+            Set<Integer> drawn = new TreeSet<>(numbers);
+            assertEquals(20, drawn.size());
+            assertEquals(new ArrayList<>(drawn), numbers);
+            int expectedHits = NumberMask.of(Set.of(1,2,3,4)).hits(NumberMask.of(drawn));
+            String[] result = c.in.readLine().split(" ");
+            assertEquals("RESULT", result[0]);
+            assertEquals(expectedHits, Integer.parseInt(result[3]));
+            assertTrue(c.in.readLine().startsWith("DONE "));
+            assertEquals("BYE", c.call("QUIT"));
+        }
+    }
+
+    @Test
+    void sv_rejectsBadCommandsWithoutDisconnecting() throws Exception {
+        try (Client c = new Client(server.port())) {
+            assertTrue(c.call("PICK 1").startsWith("ERR"));
+            assertTrue(c.call("SPOTS 3").startsWith("ERR"));
+            assertTrue(c.call("BOGUS").startsWith("ERR"));
+            assertEquals("OK SPOTS 1", c.call("SPOTS 1"));
+            assertTrue(c.call("BET 1").startsWith("ERR"));
+            assertTrue(c.call("QUICK").startsWith("OK PICKS "));
+            assertTrue(c.call("BET 9").startsWith("ERR"));
+            assertEquals("OK BET 2", c.call("BET 2"));
+            assertTrue(c.call("SPOTS 4").startsWith("ERR"));
+        }
+    }
+
+    @Test
+    void sv_manyConcurrentPlayers() throws Exception {
+        List<Client> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 50; i++) {
+                Client c = new Client(server.port());
+                clients.add(c);
+                assertEquals("OK SPOTS 10", c.call("SPOTS 10"));
+                assertTrue(c.call("QUICK").startsWith("OK PICKS"));
+                assertEquals("OK BET 1", c.call("BET 1"));
+            }
+            server.drawNow();
+            for (Client c : clients) {
+                assertTrue(c.in.readLine().startsWith("DRAW 1"));
+                assertTrue(c.in.readLine().startsWith("RESULT 1 1 "));
+            }
+        } finally {
+            for (Client c : clients) c.close();
+        }
+    }
+
+    @Test
+    void sv_backToBackDrawsArriveInOrder() throws Exception {
+        List<Client> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                Client c = new Client(server.port());
+                clients.add(c);
+                assertEquals("OK SPOTS 4", c.call("SPOTS 4"));
+                assertTrue(c.call("QUICK").startsWith("OK PICKS"));
+                assertEquals("OK BET 4", c.call("BET 4"));
+            }
+            for (int i = 0; i < 100; i++) server.drawNow();
+            for (Client c : clients) {
+                long lastDraw = 0;
+                int results = 0;
+                while (lastDraw < 100) {
+                    String[] t = c.in.readLine().split(" ");
+                    switch (t[0]) {
+                        case "DRAW" -> {
+                            long no = Long.parseLong(t[1]);
+                            assertEquals(lastDraw + 1, no);
+                            lastDraw = no;
+                        }
+                        case "RESULT" -> {
+                            results++;
+                            assertEquals(lastDraw, Long.parseLong(t[1]));
+                            assertEquals(lastDraw, Long.parseLong(t[2]));
+                        }
+                        case "DONE" -> assertEquals(4, results);
+                        default -> fail(String.join(" ", t));
+                    }
+                }
+                assertEquals(4, results);
+            }
+        } finally {
+            for (Client c : clients) c.close();
+        }
+    }
+
+    @Test
+    void sv_journaledDrawsAuditAgainstTheJournalSeed(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("server.journal");
+        for (int run = 0; run < 2; run++) {
+            // the second run continues the journal: same seed, draw indexes carry on from the first
+            DrawJournal j = DrawJournal.openSeeded(file, 0, run == 0 ? OptionalLong.of(77) : OptionalLong.empty());
+            try (KenoServer s = new KenoServer(0, 0, j.engine(), j).start()) {
+                for (int i = 0; i < 5; i++) s.drawNow();
+            }
+        }
+        assertEquals(OptionalLong.of(77), DrawJournal.seedOf(file));
+        List<Long> indexes = new ArrayList<>();
+        DrawJournal.replay(file, new DrawJournal.Visitor() {
+            @Override public void onDraw(long drawNo, long lo, long hi) { indexes.add(drawNo); }
+        });
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), indexes);
+        DrawAudit.Result r = DrawAudit.audit(file);
+        assertTrue(r.ok(), r.toString());
+        assertEquals(10, r.checked());
+        assertThrows(IOException.class, () -> DrawJournal.openSeeded(file, 0, OptionalLong.of(78)));
+        assertThrows(IllegalArgumentException.class, () -> new KenoServer(0, 0, new keno.logic.DrawingEngine(), DrawJournal.open(dir.resolve("x"), 0)));
+    }
+
+    @Test
+    void lt_loopbackLoadTestSettlesEveryTicket() throws Exception {
+        LoadTest.Report r = LoadTest.run(new LoadTest.Config(LoadTest.Mode.SERVER, 40, 0, 2, 2, 0.5, 10, 7));
+        assertEquals(0, r.errors());
+        assertEquals(80, r.tickets());
+        assertEquals(160, r.settlements());
+        assertEquals(160, r.settleLatency().count());
+        assertEquals(80, r.betLatency().count());
+    }
+}
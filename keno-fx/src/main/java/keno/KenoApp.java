@@ -0,0 +1,62 @@
+package keno;
+
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import keno.logic.KenoMetrics;
+import keno.util.Threads;
+
+import java.time.Duration;
+import java.time.Instant;
+
+
+public class KenoApp extends Application {
+    private SceneRouter router;
+
+
+    @Override
+    public void start(Stage stage) {
+        stage.setTitle("Keno");
+        router = new SceneRouter(stage);
+        router.showWelcome();
+        stage.show();
+        router.preloadGame();
+        registerMetrics();
+        // -Dkeno.exitAfterStartup: open the board, report the time since JVM start on its first pulse, then exit.
+        // Used as the training run for the CDS archive (-Pcds) and to measure cold start.
+        if (Boolean.getBoolean("keno.exitAfterStartup")) {
+            router.showGame();
+            new AnimationTimer() {
+                @Override public void handle(long now) {
+                    stop();
+                    ProcessHandle.current().info().startInstant().ifPresent(t ->
+                            System.err.println("startup: board interactive after " + Duration.between(t, Instant.now()).toMillis() + " ms"));
+                    Platform.exit();
+                }
+            }.start();
+        }
+    }
+
+
+    // JMX registration loads the management classes and starts the platform MBean server, a few hundred ms on a
+    // cold JVM; it runs on a daemon thread once the welcome screen is up so it stays off the path to the first frame.
+    private static void registerMetrics() {
+        Threads.daemonFactory("keno-metrics").newThread(() -> {
+            try { KenoMetrics.register(); }
+            catch (IllegalStateException e) { System.err.println("metrics not exposed: " + e.getMessage()); }
+        }).start();
+    }
+
+
+    @Override
+    public void stop() {
+        if (router != null) router.close();
+    }
+
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
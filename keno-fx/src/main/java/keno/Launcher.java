@@ -0,0 +1,10 @@
+package keno;
+
+
+// Main-Class for the plain-classpath jar (-Pcds). The java launcher refuses to start an Application
+// subclass directly when JavaFX is not on the module path, so this hands off to KenoApp.
+public class Launcher {
+    public static void main(String[] args) {
+        KenoApp.main(args);
+    }
+}
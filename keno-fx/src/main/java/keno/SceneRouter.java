@@ -0,0 +1,79 @@
+package keno;
+
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import keno.ui.Dialogs;
+import keno.ui.WelcomeController;
+import keno.ui.GameController;
+import keno.ui.GameSession;
+import keno.util.Threads;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+
+// Each screen is built once and its Scene reused, so going back to a screen keeps its state. FX thread only.
+public class SceneRouter {
+    private static final String WELCOME = "welcome", GAME = "game";
+    private final Stage stage;
+    private final Dialogs dialogs;
+    private final Map<String, Scene> scenes = new HashMap<>();
+    private CompletableFuture<GameSession> preloadedSession;
+    private GameController game;
+    public SceneRouter(Stage stage) { this.stage = stage; this.dialogs = new Dialogs(stage); }
+
+
+    public void showWelcome() {
+        stage.setScene(scenes.computeIfAbsent(WELCOME, k -> new Scene(new WelcomeController(this).getRoot(), 900, 600)));
+    }
+
+
+    public void showGame() {
+        stage.setScene(scenes.computeIfAbsent(GAME, k -> new Scene(gameController().getRoot(), 1100, 720)));
+    }
+
+
+    // While the welcome screen is up: the game session (engine, stats, journal replay) is built on a background
+    // thread, then the game screen's nodes on the FX thread once it is idle.
+    public void preloadGame() {
+        if (preloadedSession != null || game != null) return;
+        preloadedSession = CompletableFuture.supplyAsync(GameSession::new,
+                r -> Threads.daemonFactory("keno-preload").newThread(r).start());
+        preloadedSession.thenAcceptAsync(s -> { if (game == null) game = new GameController(this, s); }, Platform::runLater);
+    }
+
+
+    private GameController gameController() {
+        if (game == null) game = new GameController(this, session());
+        return game;
+    }
+
+
+    // The preloaded session, waiting for it if needed (its future never waits on the FX thread), or a fresh one.
+    private GameSession session() {
+        CompletableFuture<GameSession> f = preloadedSession;
+        if (f != null) {
+            try { return f.join(); }
+            catch (CompletionException e) { System.err.println("game preload failed: " + e.getCause()); }
+        }
+        return new GameSession();
+    }
+
+
+    // Releases what the screens hold open (the game journal); called from Application.stop().
+    public void close() {
+        if (game != null) game.close();
+        else if (preloadedSession != null) {
+            try { preloadedSession.join().close(); }
+            catch (CompletionException ignored) { }
+        }
+    }
+
+
+    public Dialogs dialogs() { return dialogs; }
+    public Stage getStage() { return stage; }
+}
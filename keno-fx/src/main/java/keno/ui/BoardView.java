@@ -0,0 +1,29 @@
+package keno.ui;
+
+
+import javafx.scene.Node;
+import java.util.function.IntConsumer;
+
+
+// The 8×10 bet grid. Two renderers: ButtonBoard (one Button per number, pseudo-class styling) and
+// CanvasBoard (a single Canvas). Pick -Dkeno.board=canvas for the latter.
+interface BoardView {
+    Node getNode();
+    void setOnPick(IntConsumer handler);
+    void setEnabled(boolean enabled);
+    void setPicked(int n, boolean picked);   // also clears a previous hit mark on n
+    void markHit(int n);
+    void setDrawn(int n);
+    void clearDrawn();
+    void reset();                            // clears every mark and disables the grid
+
+
+    // Marks order[i] as drawn at (i+1) × msPerNumber (all on the next pulse when msPerNumber <= 0), then runs onFinished.
+    void reveal(int[] order, double msPerNumber, Runnable onFinished);
+    void stopReveal();
+
+
+    static BoardView create() {
+        return "canvas".equalsIgnoreCase(System.getProperty("keno.board")) ? new CanvasBoard() : new ButtonBoard();
+    }
+}
@@ -0,0 +1,74 @@
+package keno.ui;
+
+
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import java.util.function.IntConsumer;
+
+
+// Button grid styled through pre-registered pseudo-classes (board.css) rather than inline setStyle calls,
+// so state changes only flip a flag instead of re-parsing CSS.
+class ButtonBoard implements BoardView {
+    private static final PseudoClass PICKED = PseudoClass.getPseudoClass("picked");
+    private static final PseudoClass HIT = PseudoClass.getPseudoClass("hit");
+    private static final PseudoClass DRAWN = PseudoClass.getPseudoClass("drawn");
+
+    private final GridPane grid = new GridPane();
+    private final Button[] numberButtons = new Button[81]; // 1..80
+    private final RevealDriver driver = new RevealDriver(this::setDrawn);
+    private IntConsumer onPick = n -> {};
+
+
+    ButtonBoard() {
+        grid.getStylesheets().add(ButtonBoard.class.getResource("board.css").toExternalForm());
+        grid.setHgap(4); grid.setVgap(4); grid.setPadding(new Insets(10));
+        int n = 1;
+        for (int r=0;r<8;r++)
+            for (int c=0;c<10;c++) {
+                Button b = new Button(String.valueOf(n));
+                b.getStyleClass().add("keno-number");
+                b.setPrefSize(60,40);
+                final int num = n;
+                b.setOnAction(e -> onPick.accept(num));
+                b.setDisable(true);
+                numberButtons[n] = b;
+                grid.add(b,c,r);
+                n++;
+            }
+    }
+
+
+    @Override public Node getNode() { return grid; }
+    @Override public void setOnPick(IntConsumer handler) { onPick = handler; }
+    @Override public void setEnabled(boolean enabled) { for (int i=1;i<=80;i++) numberButtons[i].setDisable(!enabled); }
+
+
+    @Override
+    public void setPicked(int n, boolean picked) {
+        numberButtons[n].pseudoClassStateChanged(PICKED, picked);
+        numberButtons[n].pseudoClassStateChanged(HIT, false);
+    }
+
+
+    @Override public void markHit(int n) { numberButtons[n].pseudoClassStateChanged(HIT, true); }
+    @Override public void setDrawn(int n) { numberButtons[n].pseudoClassStateChanged(DRAWN, true); }
+    @Override public void clearDrawn() { for (int i=1;i<=80;i++) numberButtons[i].pseudoClassStateChanged(DRAWN, false); }
+
+
+    @Override
+    public void reset() {
+        driver.cancel();
+        for (int i=1;i<=80;i++) {
+            Button b = numberButtons[i];
+            b.setDisable(true);
+            b.pseudoClassStateChanged(PICKED, false); b.pseudoClassStateChanged(HIT, false); b.pseudoClassStateChanged(DRAWN, false);
+        }
+    }
+
+
+    @Override public void reveal(int[] order, double msPerNumber, Runnable onFinished) { driver.play(order, msPerNumber, onFinished); }
+    @Override public void stopReveal() { driver.cancel(); }
+}
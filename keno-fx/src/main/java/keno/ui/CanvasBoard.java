@@ -0,0 +1,105 @@
+package keno.ui;
+
+
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+
+// The whole grid on one Canvas: cell state lives in a byte per number and only changed cells are repainted,
+// so a reveal frame costs a couple of fillRect/fillText calls instead of scene-graph and CSS passes.
+class CanvasBoard implements BoardView {
+    private static final int COLS = 10, ROWS = 8, CELL_W = 60, CELL_H = 40, GAP = 4, PAD = 10;
+    private static final byte PICKED = 1, HIT = 2, DRAWN = 4;
+    private static final Color BASE = Color.web("#e8e8e8"), PICK = Color.web("#b6e3ff"), HIT_FILL = Color.web("#8ef79b");
+    private static final Color BORDER = Color.web("#b5b5b5"), TEXT = Color.web("#333333");
+
+    private final Canvas canvas = new Canvas(PAD * 2 + COLS * CELL_W + (COLS - 1) * GAP, PAD * 2 + ROWS * CELL_H + (ROWS - 1) * GAP);
+    private final Pane pane = new Pane(canvas);
+    private final GraphicsContext g = canvas.getGraphicsContext2D();
+    private final byte[] state = new byte[81];
+    private final RevealDriver driver = new RevealDriver(this::setDrawn);
+    private IntConsumer onPick = n -> {};
+    private boolean enabled;
+
+
+    CanvasBoard() {
+        g.setFont(Font.font(Font.getDefault().getFamily(), 14));
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        canvas.setOnMouseClicked(e -> {
+            int n = cellAt(e.getX(), e.getY());
+            if (enabled && n > 0) onPick.accept(n);
+        });
+        for (int i=1;i<=80;i++) paint(i);
+    }
+
+
+    private int cellAt(double x, double y) {
+        int c = (int) ((x - PAD) / (CELL_W + GAP)), r = (int) ((y - PAD) / (CELL_H + GAP));
+        if (x < PAD || y < PAD || c >= COLS || r >= ROWS) return 0;
+        if (x - PAD - c * (CELL_W + GAP) > CELL_W || y - PAD - r * (CELL_H + GAP) > CELL_H) return 0; // in a gap
+        return r * COLS + c + 1;
+    }
+
+
+    private void paint(int n) {
+        double x = PAD + ((n - 1) % COLS) * (CELL_W + GAP), y = PAD + ((n - 1) / COLS) * (CELL_H + GAP);
+        byte s = state[n];
+        g.clearRect(x, y, CELL_W, CELL_H);
+        g.setGlobalAlpha((s & DRAWN) != 0 ? 0.35 : enabled ? 1.0 : 0.6);
+        g.setFill((s & HIT) != 0 ? HIT_FILL : (s & PICKED) != 0 ? PICK : BASE);
+        g.fillRoundRect(x, y, CELL_W, CELL_H, 6, 6);
+        g.setStroke(BORDER);
+        g.strokeRoundRect(x + 0.5, y + 0.5, CELL_W - 1, CELL_H - 1, 6, 6);
+        g.setFill(TEXT);
+        g.fillText(Integer.toString(n), x + CELL_W / 2.0, y + CELL_H / 2.0);
+        g.setGlobalAlpha(1.0);
+    }
+
+
+    private void set(int n, byte s) {
+        if (state[n] == s) return;
+        state[n] = s;
+        paint(n);
+    }
+
+
+    @Override public Node getNode() { return pane; }
+    @Override public void setOnPick(IntConsumer handler) { onPick = handler; }
+
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        for (int i=1;i<=80;i++) paint(i);
+    }
+
+
+    @Override public void setPicked(int n, boolean picked) { set(n, (byte) (picked ? (state[n] | PICKED) & ~HIT : state[n] & ~(PICKED | HIT))); }
+    @Override public void markHit(int n) { set(n, (byte) (state[n] | HIT)); }
+    @Override public void setDrawn(int n) { set(n, (byte) (state[n] | DRAWN)); }
+    @Override public void clearDrawn() { for (int i=1;i<=80;i++) set(i, (byte) (state[i] & ~DRAWN)); }
+
+
+    @Override
+    public void reset() {
+        driver.cancel();
+        enabled = false;
+        Arrays.fill(state, (byte) 0);
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int i=1;i<=80;i++) paint(i);
+    }
+
+
+    @Override public void reveal(int[] order, double msPerNumber, Runnable onFinished) { driver.play(order, msPerNumber, onFinished); }
+    @Override public void stopReveal() { driver.cancel(); }
+}
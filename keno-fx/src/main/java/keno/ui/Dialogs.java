@@ -0,0 +1,64 @@
+package keno.ui;
+
+
+import javafx.scene.control.*;
+import javafx.stage.Window;
+import keno.logic.KenoGame;
+import keno.logic.OddsTable;
+import keno.logic.PaySchedule;
+
+
+// The rules and odds dialogs of one window, built on first use and reused; FX thread only. The odds text is only
+// reformatted when the active schedule changes.
+public class Dialogs {
+    private final Window owner;
+    private Alert rules, odds;
+    private PaySchedule oddsShown;
+
+
+    public Dialogs(Window owner) { this.owner = owner; }
+
+
+    void showRules() {
+        if (rules == null) {
+            rules = new Alert(Alert.AlertType.INFORMATION);
+            rules.initOwner(owner);
+            rules.setTitle("Rules");
+            rules.setHeaderText("How the game is played");
+            rules.setContentText(rulesText());
+        }
+        rules.showAndWait();
+    }
+
+
+    // Built from the limits KenoGame and Validators enforce, so the text cannot drift from the game.
+    static String rulesText() {
+        StringBuilder spots = new StringBuilder();
+        for (int i = 0; i < KenoGame.SPOTS.length; i++) {
+            if (i > 0) spots.append(i == KenoGame.SPOTS.length - 1 ? ", or " : ", ");
+            spots.append(KenoGame.SPOTS[i]);
+        }
+        return "Choose " + spots + " spots (numbers 1–80).\n" +
+                "20 unique numbers are drawn each drawing.\n" +
+                "You win based on how many of your picks match the draw.\n" +
+                "Play 1–" + KenoGame.MAX_DRAWINGS + " drawings per bet card, or auto-play up to " +
+                KenoGame.MAX_AUTO_DRAWINGS + ".";
+    }
+
+
+    void showOdds() {
+        if (odds == null) {
+            odds = new Alert(Alert.AlertType.INFORMATION);
+            odds.initOwner(owner);
+            odds.setTitle("Odds / Payouts");
+            odds.getDialogPane().setPrefWidth(520);
+        }
+        OddsTable table = OddsTable.get();
+        if (table.schedule() != oddsShown) {
+            odds.setHeaderText(table.schedule().title() + " and exact odds ($1 wager)");
+            odds.setContentText(table.asTextTable() + "Source: " + table.schedule().source());
+            oddsShown = table.schedule();
+        }
+        odds.showAndWait();
+    }
+}
@@ -0,0 +1,390 @@
+package keno.ui;
+
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import keno.SceneRouter;
+import keno.logic.*;
+import keno.util.Validators;
+
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class GameController {
+    private final BorderPane root = new BorderPane();
+
+
+    // Left controls
+    private final ToggleGroup spotsGroup = new ToggleGroup();
+    private final RadioButton spot1 = mkSpot("1",1);
+    private final RadioButton spot4 = mkSpot("4",4);
+    private final RadioButton spot8 = mkSpot("8",8);
+    private final RadioButton spot10 = mkSpot("10",10);
+    private final ComboBox<Integer> drawingsBox = new ComboBox<>(FXCollections.observableArrayList(
+            IntStream.rangeClosed(1, KenoGame.MAX_DRAWINGS).boxed().toList()));
+    private final Button quickPickBtn = new Button("Quick Pick");
+    private final Button startBtn = new Button("Start Drawings");
+    private final Button continueBtn = new Button("Continue");
+    private final Button resetBtn = new Button("Reset Bet");
+    private final CheckBox autoPlayBox = new CheckBox("Auto-play");
+    private final Spinner<Integer> autoDrawingsSpinner = new Spinner<>(1, KenoGame.MAX_AUTO_DRAWINGS, 100, 10);
+    private final Slider speedSlider = new Slider(0, 200, 200); // ms per revealed number, 0 = instant
+    private final Label speedLabel = new Label("Reveal: 200 ms");
+    private final Button stopBtn = new Button("Stop Auto-play");
+
+
+    // Right grid (bet card)
+    private final BoardView board = BoardView.create();
+
+
+    // Status + log
+    private final Label selectedLabel = new Label("Selected: 0 / 0");
+    private final Label drawLabel = new Label("Draw: 0 / 0");
+    private final Label lastWinLabel = new Label("Last Win: $0");
+    private final Label totalWinLabel = new Label("Total: $0");
+    private final GameLog gameLog = GameLog.fromSystemProperties();
+    private final ListView<LogEntry> log = new ListView<>(gameLog);
+
+
+    // Game state
+    private final BetCard betCard = new BetCard();
+    private final KenoGame game = new KenoGame();
+    private final GameSession session;
+    private final DrawingEngine engine;
+    private final StatsTracker stats;
+    private final DrawAnalytics analytics;
+    private final NumberMask drawn = new NumberMask(), pickMask = new NumberMask();
+    private final int[] drawOrder = new int[20];
+    private final AutoPlayer autoPlayer = new AutoPlayer();
+    private boolean autoRun;
+
+    // FX thread only; the session may come from the preload thread.
+    public GameController(SceneRouter router, GameSession session) {
+        this.session = session;
+        this.engine = session.engine;
+        this.stats = session.stats;
+        this.analytics = session.analytics;
+
+        // Top menu
+        MenuBar mb = new MenuBar();
+        Menu menu = new Menu("Menu");
+        MenuItem rules = new MenuItem("Rules of the Game");
+        MenuItem odds = new MenuItem("Odds of Winning");
+        MenuItem hotCold = new MenuItem("Hot & Cold Numbers");
+        MenuItem newLook = new MenuItem("New Look");
+        MenuItem exit = new MenuItem("Exit");
+        menu.getItems().addAll(rules, odds, hotCold, newLook, new SeparatorMenuItem(), exit);
+        mb.getMenus().add(menu);
+        root.setTop(mb);
+
+
+        // Left controls pane
+        VBox left = new VBox(10); left.setPadding(new Insets(10));
+        Label spotsLabel = new Label("Spots");
+        HBox spotRow = new HBox(8, spot1, spot4, spot8, spot10);
+        drawingsBox.getSelectionModel().selectFirst();
+        HBox drawingsRow = new HBox(8, new Label("Drawings"), drawingsBox);
+        Button enableGridBtn = new Button("Enable Grid");
+        enableGridBtn.setOnAction(e -> enableGridIfReady());
+        quickPickBtn.setOnAction(e -> quickPick());
+        startBtn.setOnAction(e -> startDrawings());
+        continueBtn.setOnAction(e -> continueDrawing());
+        resetBtn.setOnAction(e -> resetBet());
+        stopBtn.setOnAction(e -> stopAutoPlay());
+        startBtn.setDisable(true);
+        continueBtn.setDisable(true);
+        stopBtn.setDisable(true);
+        autoDrawingsSpinner.setPrefWidth(90);
+        HBox autoRow = new HBox(8, autoPlayBox, autoDrawingsSpinner);
+        speedSlider.valueProperty().addListener((obs, o, v) ->
+                speedLabel.setText(revealMs() == 0 ? "Reveal: instant" : "Reveal: " + revealMs() + " ms"));
+        left.getChildren().addAll(spotsLabel, spotRow, drawingsRow, enableGridBtn, quickPickBtn, startBtn, continueBtn, resetBtn,
+                new Separator(), autoRow, speedLabel, speedSlider, stopBtn,
+                new Separator(), selectedLabel, drawLabel, lastWinLabel, totalWinLabel,
+                new Label("Log:"), log);
+        log.setCellFactory(lv -> new ListCell<>() {
+            @Override protected void updateItem(LogEntry item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.render());
+            }
+        });
+        left.setPrefWidth(320);
+        root.setLeft(left);
+
+
+        // Grid
+        board.setOnPick(this::togglePick);
+        root.setCenter(board.getNode());
+
+
+        // Menu actions
+        rules.setOnAction(e -> router.dialogs().showRules());
+        odds.setOnAction(e -> router.dialogs().showOdds());
+        hotCold.setOnAction(e -> showHotCold());
+        newLook.setOnAction(e -> ThemeManager.applyAlt(root));
+        exit.setOnAction(e -> router.getStage().close());
+
+
+        totalWinLabel.setText("Total: $" + stats.totalWins());
+        if (session.journalProblem != null) gameLog.append(LogEntry.message("Journal disabled: " + session.journalProblem));
+        ThemeManager.applyDefault(root);
+    }
+
+    private RadioButton mkSpot(String label, int value) {
+        RadioButton rb = new RadioButton(label);
+        rb.setToggleGroup(spotsGroup);
+        rb.setOnAction(e -> { betCard.setSpots(value); updateSelectedLabel(); });
+        return rb;
+    }
+
+
+    private void updateSelectedLabel() {
+        selectedLabel.setText("Selected: " + betCard.getPicks().size() + " / " + betCard.getSpots());
+        startBtn.setDisable(!(betCard.isComplete()));
+    }
+
+
+    private void enableGridIfReady() {
+        Integer d = drawingsBox.getValue();
+        RadioButton sel = (RadioButton) spotsGroup.getSelectedToggle();
+        if (sel == null || !Validators.validDrawings(d)) {
+            alert("Choose spots and drawings first.");
+            return;
+        }
+        betCard.setSpots(Integer.parseInt(sel.getText()));
+        game.configure(betCard.getSpots(), d);
+        drawLabel.setText("Draw: 0 / " + d);
+        board.setEnabled(true);
+    }
+
+
+    private void togglePick(int num) {
+        if (game.isRunning()) return;
+        boolean added = betCard.togglePick(num);
+        board.setPicked(num, added);
+        updateSelectedLabel();
+    }
+
+    private void quickPick() {
+        if (game.isRunning()) return;
+        betCard.quickFill();
+        Set<Integer> picks = betCard.getPicks();
+        for (int i=1;i<=80;i++) board.setPicked(i, picks.contains(i));
+        updateSelectedLabel();
+    }
+
+
+    private void startDrawings() {
+        if (!betCard.isComplete()) { alert("Pick exactly " + betCard.getSpots() + " numbers."); return; }
+        autoRun = autoPlayBox.isSelected();
+        if (autoRun) {
+            Integer n = autoDrawingsSpinner.getValue();
+            if (!Validators.validAutoDrawings(n)) { alert("Auto-play runs 1–" + KenoGame.MAX_AUTO_DRAWINGS + " drawings."); return; }
+            game.configureAutoPlay(betCard.getSpots(), n);
+        } else {
+            game.configure(betCard.getSpots(), drawingsBox.getValue());
+        }
+        pickMask.clear();
+        for (int p : betCard.getPicks()) pickMask.add(p);
+        lockInputs();
+        game.start();
+        gameLog.append(LogEntry.started(autoRun, game.getDrawings()));
+        nextDrawing();
+    }
+
+
+    private void continueDrawing() { proceedOneDrawing(); }
+
+
+    private void nextDrawing() {
+        if (autoRun && revealMs() == 0) autoPlayer.start();
+        else proceedOneDrawing();
+    }
+
+
+    private void proceedOneDrawing() {
+        continueBtn.setDisable(true);
+        engine.draw20(drawn);
+        engine.lastDrawOrder(drawOrder); // already a random reveal order
+        if (!autoRun) gameLog.append(LogEntry.drawing(game.getCurrentDraw()+1));
+        // clear previous highlights
+        board.clearDrawn();
+
+
+        long ms = revealMs();
+        RevealEvent reveal = new RevealEvent();
+        reveal.begin();
+        board.reveal(drawOrder, ms, () -> {
+            reveal.commit(game.getCurrentDraw() + 1, ms);
+            MatchResult mr = settleDrawing();
+            showResult(mr);
+            gameLog.append(LogEntry.result(autoRun, mr.drawIndex(), mr.k(), mr.win()));
+
+
+            if (!game.hasNext()) finishRound();
+            else if (autoRun) nextDrawing();
+            else continueBtn.setDisable(false);
+        });
+    }
+
+
+    private MatchResult settleDrawing() {
+        NumberMask hits = new NumberMask(pickMask.lo() & drawn.lo(), pickMask.hi() & drawn.hi());
+        int win = game.settle(pickMask, drawn);
+        KenoMetrics.get().drew(0);                              // one draw per settled drawing on this screen
+        KenoMetrics.get().settled(1, 100, win * 100L, 0);       // a $1 ticket; prizes are per $1
+        MatchResult mr = new MatchResult(game.getCurrentDraw(), hits.toSet(), hits.size(), win);
+        stats.record(game.getSpots(), mr);
+        journal(mr);
+        return mr;
+    }
+
+
+    private void showResult(MatchResult mr) {
+        // auto-play shows only the latest drawing's hits; a normal bet keeps them across all its drawings
+        if (autoRun) for (int p : betCard.getPicks()) board.setPicked(p, true);
+        for (Integer h : mr.hits()) board.markHit(h);
+        lastWinLabel.setText("Last Win: $" + mr.win());
+        totalWinLabel.setText("Total: $" + stats.totalWins());
+        drawLabel.setText("Draw: " + game.getCurrentDraw() + " / " + game.getDrawings());
+    }
+
+
+    private void finishRound() {
+        autoPlayer.stop();
+        autoRun = false;
+        gameLog.append(LogEntry.complete());
+        unlockForNewRound();
+    }
+
+
+    private void stopAutoPlay() {
+        if (!autoRun) return;
+        board.stopReveal();
+        game.stop();
+        gameLog.append(LogEntry.stopped(game.getCurrentDraw()));
+        finishRound();
+    }
+
+
+    private long revealMs() { return Math.round(speedSlider.getValue()); }
+
+
+    // Instant auto-play: each pulse settles as many drawings as fit in the frame budget, then updates the
+    // labels, log and grid once, so throughput is bounded by the engine rather than by the scene graph.
+    private final class AutoPlayer extends AnimationTimer {
+        private static final long FRAME_BUDGET_NANOS = 8_000_000;
+
+
+        @Override
+        public void handle(long now) {
+            if (revealMs() > 0) { stop(); if (game.hasNext()) proceedOneDrawing(); return; }
+            long t0 = System.nanoTime(), won = 0;
+            int first = game.getCurrentDraw() + 1, n = 0;
+            MatchResult last = null;
+            while (game.hasNext() && System.nanoTime() - t0 < FRAME_BUDGET_NANOS) {
+                engine.draw20(drawn);
+                last = settleDrawing();
+                won += last.win();
+                n++;
+            }
+            if (last != null) {
+                board.clearDrawn();
+                engine.lastDrawOrder(drawOrder);
+                for (int v : drawOrder) board.setDrawn(v);
+                showResult(last);
+                gameLog.append(n == 1 ? LogEntry.result(true, first, last.k(), last.win()) : LogEntry.batch(first, last.drawIndex(), won));
+            }
+            if (!game.hasNext()) finishRound();
+        }
+    }
+
+    private void resetBet() {
+        autoPlayer.stop();
+        autoRun = false;
+        game.stop();
+        unlockForNewRound();
+        board.reset();
+        betCard.clear();
+        spotsGroup.selectToggle(null);
+        selectedLabel.setText("Selected: 0 / 0");
+        drawLabel.setText("Draw: 0 / 0");
+        lastWinLabel.setText("Last Win: $0");
+        startBtn.setDisable(true);
+        continueBtn.setDisable(true);
+    }
+
+
+    private void lockInputs() {
+        board.setEnabled(false);
+        quickPickBtn.setDisable(true);
+        startBtn.setDisable(true);
+        drawingsBox.setDisable(true);
+        autoPlayBox.setDisable(true);
+        autoDrawingsSpinner.setDisable(true);
+        stopBtn.setDisable(!autoRun);
+        spot1.setDisable(true); spot4.setDisable(true); spot8.setDisable(true); spot10.setDisable(true);
+    }
+
+
+    private void unlockForNewRound() {
+        drawingsBox.setDisable(false);
+        autoPlayBox.setDisable(false);
+        autoDrawingsSpinner.setDisable(false);
+        stopBtn.setDisable(true);
+        spot1.setDisable(false); spot4.setDisable(false); spot8.setDisable(false); spot10.setDisable(false);
+        quickPickBtn.setDisable(false);
+        resetBtn.setDisable(false);
+    }
+
+
+    private void journal(MatchResult mr) {
+        try {
+            session.journal(betCard.getSpots(), mr, drawn);
+        } catch (IOException e) {
+            gameLog.append(LogEntry.message("Journal write failed: " + e.getMessage()));
+        }
+    }
+
+
+    private void showHotCold() {
+        StringBuilder sb = new StringBuilder();
+        for (DrawAnalytics.Span span : DrawAnalytics.Span.values()) {
+            sb.append(span == DrawAnalytics.Span.ALL_TIME ? "All drawings" : "Last 100 drawings")
+              .append(" (").append(analytics.draws(span)).append(")\n");
+            sb.append(" Hot:  ").append(Arrays.toString(analytics.hottest(10, span))).append("\n");
+            sb.append(" Cold: ").append(Arrays.toString(analytics.coldest(10, span))).append("\n");
+            sb.append(" Pairs:");
+            for (DrawAnalytics.Pair p : analytics.topPairs(5, span)) sb.append(" ").append(p.a()).append("+").append(p.b()).append(" ×").append(p.count());
+            sb.append("\n\n");
+        }
+        Alert a = new Alert(Alert.AlertType.INFORMATION, sb.toString(), ButtonType.OK);
+        a.setTitle("Hot & Cold");
+        a.setHeaderText("Number frequencies this session");
+        a.showAndWait();
+    }
+
+
+    private void alert(String msg) {
+        new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK).showAndWait();
+    }
+
+
+    // Called once when the application stops: closes the log spill and the journal so their last lines and
+    // records reach the disk.
+    public void close() {
+        autoPlayer.stop();
+        gameLog.close();
+        session.close();
+    }
+
+
+    public BorderPane getRoot() { return root; }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package keno.ui;
+
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+
+// Fixed-capacity ring of LogEntry backing the game log ListView. append() only queues; queued entries are
+// appended in one batch per pulse, and whatever falls off the front is optionally spilled to a text file, oldest
+// first. close() spills the entries still shown, so the file holds the whole session in order.
+class GameLog extends ObservableListBase<LogEntry> implements AutoCloseable {
+    private final LogEntry[] ring;
+    private final List<LogEntry> pending = new ArrayList<>();
+    private final Path spillFile;
+    private Writer spill;
+    private int head, size;
+    private AnimationTimer flusher;     // created by the first append, on the FX thread
+
+
+    GameLog(int capacity, Path spillFile) {
+        if (capacity<1) throw new IllegalArgumentException("capacity");
+        this.ring = new LogEntry[capacity];
+        this.spillFile = spillFile;
+    }
+
+
+    // Retention from -Dkeno.log.capacity (default 500), spill file from -Dkeno.log.spill.
+    static GameLog fromSystemProperties() {
+        String spill = System.getProperty("keno.log.spill");
+        return new GameLog(Integer.getInteger("keno.log.capacity", 500), spill == null ? null : Path.of(spill));
+    }
+
+
+    void append(LogEntry e) {
+        // entries from other threads are handed to the FX thread
+        if (!Platform.isFxApplicationThread()) { Platform.runLater(() -> append(e)); return; }
+        if (flusher == null) flusher = new AnimationTimer() {
+            @Override public void handle(long now) { stop(); flush(); }
+        };
+        if (pending.isEmpty()) flusher.start();
+        pending.add(e);
+    }
+
+
+    void flush() {
+        if (pending.isEmpty()) return;
+        add(pending);
+        pending.clear();
+    }
+
+
+    // Appends entries in order. What no longer fits is spilled oldest first: the evicted ring entries, then the
+    // batch's own overflow, which never becomes visible.
+    void add(List<LogEntry> entries) {
+        int cap = ring.length, n = entries.size();
+        List<LogEntry> batch = n > cap ? entries.subList(n - cap, n) : entries;
+        int evict = Math.min(size, Math.max(0, size + n - cap));
+        if (evict > 0) {
+            List<LogEntry> removed = new ArrayList<>(evict);
+            for (int i=0;i<evict;i++) {
+                LogEntry old = ring[head];
+                removed.add(old);
+                spill(old);
+                ring[head] = null;
+                head = (head + 1) % cap;
+            }
+            size -= evict;
+            beginChange();
+            nextRemove(0, removed);
+            endChange();
+        }
+        for (int i=0;i<n-cap;i++) spill(entries.get(i));
+        int from = size;
+        for (LogEntry e : batch) { ring[(head + size) % cap] = e; size++; }
+        flushSpill();
+        beginChange();
+        nextAdd(from, size);
+        endChange();
+    }
+
+
+    private void spill(LogEntry e) {
+        if (spillFile == null) return;
+        try {
+            if (spill == null) spill = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spill.write(e.render());
+            spill.write(System.lineSeparator());
+        } catch (IOException ex) {
+            System.err.println("log spill failed: " + ex.getMessage());
+        }
+    }
+
+
+    private void flushSpill() {
+        if (spill == null) return;
+        try { spill.flush(); } catch (IOException ex) { System.err.println("log spill failed: " + ex.getMessage()); }
+    }
+
+
+    // FX thread only, once the log is no longer shown.
+    @Override
+    public void close() {
+        if (flusher != null) flusher.stop();
+        flush();
+        if (spillFile == null) return;
+        for (int i=0;i<size;i++) spill(get(i));
+        if (spill == null) return;
+        try { spill.close(); } catch (IOException ex) { System.err.println("log spill failed: " + ex.getMessage()); }
+        spill = null;
+    }
+
+
+    @Override public LogEntry get(int index) {
+        Objects.checkIndex(index, size);
+        return ring[(head + index) % ring.length];
+    }
+
+
+    @Override public int size() { return size; }
+}
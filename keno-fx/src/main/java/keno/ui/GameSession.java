@@ -0,0 +1,67 @@
+package keno.ui;
+
+
+import keno.logic.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.OptionalLong;
+
+
+// The game screen's non-UI state: engine, stats, hot/cold analytics and the optional journal (-Dkeno.journal),
+// replayed into the stats when the file exists. It creates no nodes, so SceneRouter builds it off the FX thread
+// while the welcome screen is up.
+// With a journal the engine is counter-based and continues the journal's seed (-Dkeno.seed for a new journal,
+// else a random one), so `keno audit <journal>` can re-derive every draw. -Dkeno.seed alone gives a seeded,
+// replayable engine without journaling.
+public final class GameSession {
+    final DrawingEngine engine;
+    final StatsTracker stats = StatsTracker.streaming(1024);  // totals for the whole session, the last 1024 results
+    final DrawAnalytics analytics = new DrawAnalytics(100);
+    final DrawJournal journal;
+    final String journalProblem;    // why journaling is off despite -Dkeno.journal, else null
+
+
+    public GameSession() {
+        DrawJournal j = null;
+        String problem = null;
+        String path = System.getProperty("keno.journal");
+        Long seed = Long.getLong("keno.seed");
+        if (path != null) {
+            try {
+                Path file = Path.of(path);
+                j = DrawJournal.openSeeded(file, 10, seed == null ? OptionalLong.empty() : OptionalLong.of(seed));
+                DrawJournal.replayInto(file, stats);
+            } catch (IOException e) {
+                if (j != null) close(j);
+                j = null;
+                problem = e.getMessage();
+            }
+        }
+        journal = j;
+        journalProblem = problem;
+        engine = j != null ? j.engine() : seed != null ? DrawingEngine.counterBased(seed) : new DrawingEngine();
+        engine.addListener(analytics);
+    }
+
+
+    // Journals a settled drawing: the draw under the engine's own index, then the settlement. drawn must be the
+    // engine's latest draw. No-op without a journal.
+    void journal(int spots, MatchResult mr, NumberMask drawn) throws IOException {
+        if (journal == null) return;
+        journal.appendDraw(engine.nextDrawIndex() - 1, drawn);
+        journal.appendSettlement(mr.drawIndex(), spots, mr.k(), NumberMask.of(mr.hits()), mr.win());
+    }
+
+
+    // Closes the journal so its last records reach the disk.
+    public void close() {
+        if (journal != null) close(journal);
+    }
+
+
+    private static void close(DrawJournal j) {
+        try { j.close(); }
+        catch (IOException e) { System.err.println("journal close failed: " + e.getMessage()); }
+    }
+}
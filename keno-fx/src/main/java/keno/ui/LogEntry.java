@@ -0,0 +1,34 @@
+package keno.ui;
+
+
+// Compact game-log record; the display text is only built when a cell actually renders it.
+record LogEntry(byte kind, int a, int b, long c, String text) {
+    static final byte MESSAGE = 0, STARTED = 1, AUTO_STARTED = 2, DRAWING = 3, RESULT = 4, AUTO_RESULT = 5, BATCH = 6, COMPLETE = 7, STOPPED = 8;
+
+
+    static LogEntry message(String text) { return new LogEntry(MESSAGE, 0, 0, 0, text); }
+    static LogEntry started(boolean auto, int drawings) { return new LogEntry(auto ? AUTO_STARTED : STARTED, drawings, 0, 0, null); }
+    static LogEntry drawing(int n) { return new LogEntry(DRAWING, n, 0, 0, null); }
+    static LogEntry result(boolean auto, int drawIndex, int k, long win) { return new LogEntry(auto ? AUTO_RESULT : RESULT, drawIndex, k, win, null); }
+    static LogEntry batch(int first, int last, long won) { return new LogEntry(BATCH, first, last, won, null); }
+    static LogEntry complete() { return new LogEntry(COMPLETE, 0, 0, 0, null); }
+    static LogEntry stopped(int atDrawing) { return new LogEntry(STOPPED, atDrawing, 0, 0, null); }
+
+
+    String render() {
+        return switch (kind) {
+            case STARTED -> "Starting drawings…";
+            case AUTO_STARTED -> "Auto-playing " + a + " drawings…";
+            case DRAWING -> "Drawing " + a + "…";
+            case RESULT -> "Hits: " + b + " → $" + c;
+            case AUTO_RESULT -> "Drawing " + a + ": Hits: " + b + " → $" + c;
+            case BATCH -> "Drawings " + a + "–" + b + ": " + (b - a + 1) + " settled → $" + c;
+            case COMPLETE -> "All drawings complete.";
+            case STOPPED -> "Auto-play stopped at drawing " + a + ".";
+            default -> text;
+        };
+    }
+
+
+    @Override public String toString() { return render(); }
+}
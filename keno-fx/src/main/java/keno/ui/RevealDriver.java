@@ -0,0 +1,48 @@
+package keno.ui;
+
+
+import javafx.animation.AnimationTimer;
+import java.util.function.IntConsumer;
+
+
+// One reusable pulse-driven timer for reveal animations: each frame it reveals however many numbers are due by
+// elapsed time, so nothing is allocated per drawing and fast speeds simply reveal several numbers per frame.
+final class RevealDriver extends AnimationTimer {
+    private final IntConsumer onReveal;
+    private final int[] order = new int[20];
+    private int count, shown;
+    private long startNanos, nanosPer;
+    private Runnable onFinished;
+
+
+    RevealDriver(IntConsumer onReveal) { this.onReveal = onReveal; }
+
+
+    void play(int[] numbers, double msPerNumber, Runnable onFinished) {
+        stop();
+        count = Math.min(numbers.length, order.length);
+        System.arraycopy(numbers, 0, order, 0, count);
+        shown = 0;
+        startNanos = -1;
+        nanosPer = (long) Math.max(0, msPerNumber * 1_000_000);
+        this.onFinished = onFinished;
+        start();
+    }
+
+
+    @Override
+    public void handle(long now) {
+        if (startNanos < 0) startNanos = now;
+        int due = nanosPer == 0 ? count : (int) Math.min(count, (now - startNanos) / nanosPer);
+        while (shown < due) onReveal.accept(order[shown++]);
+        if (shown == count) {
+            stop();
+            Runnable r = onFinished;
+            onFinished = null;
+            if (r != null) r.run();
+        }
+    }
+
+
+    void cancel() { stop(); onFinished = null; }
+}
@@ -0,0 +1,21 @@
+package keno.ui;
+
+
+import jdk.jfr.*;
+
+
+// Flight Recorder event spanning one animated reveal of 20 numbers, from the first mark to onFinished.
+@Name("keno.Reveal") @Label("Keno Reveal") @Category("Keno")
+@StackTrace(false)
+final class RevealEvent extends Event {
+    @Label("Drawing") int drawing;
+    @Label("Ms per Number") @Timespan(Timespan.MILLISECONDS) long msPerNumber;
+
+
+    void commit(int drawing, long msPerNumber) {
+        if (!shouldCommit()) return;
+        this.drawing = drawing;
+        this.msPerNumber = msPerNumber;
+        commit();
+    }
+}
@@ -1,4 +1,4 @@
-package keno.util;
+package keno.ui;
 
 
 import javafx.scene.Parent;
@@ -6,8 +6,6 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import keno.SceneRouter;
-import keno.util.ThemeManager;
-import keno.logic.PayoutTable;
 
 
 public class WelcomeController {
@@ -41,8 +39,8 @@ public class WelcomeController {
 
 
         // Actions
-        rules.setOnAction(e -> Dialogs.showRules());
-        odds.setOnAction(e -> Dialogs.showOdds());
+        rules.setOnAction(e -> router.dialogs().showRules());
+        odds.setOnAction(e -> router.dialogs().showOdds());
         exit.setOnAction(e -> router.getStage().close());
 
 
@@ -51,26 +49,4 @@ public class WelcomeController {
 
 
     public BorderPane getRoot() { return root; }
-
-
-    static class Dialogs {
-        static void showRules() {
-            Alert a = new Alert(Alert.AlertType.INFORMATION);
-            a.setTitle("Rules");
-            a.setHeaderText("How the game is played");
-            a.setContentText("Choose 1, 4, 8, or 10 spots (numbers 1–80).\n" +
-                    "20 unique numbers are drawn each drawing.\n" +
-                    "You win based on how many of your picks match the draw.\n" +
-                    "Play 1–4 drawings per bet card.");
-            a.showAndWait();
-        }
-        static void showOdds() {
-            Alert a = new Alert(Alert.AlertType.INFORMATION);
-            a.setTitle("Odds / Payouts");
-            a.setHeaderText("Spot 1, 4, 8, 10 payout table (NC Keno)");
-            a.setContentText(PayoutTable.asTextTable());
-            a.getDialogPane().setPrefWidth(520);
-            a.showAndWait();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package keno.ui;
+
+
+import keno.logic.KenoGame;
+import keno.util.Validators;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class DialogsTests {
+
+    @Test
+    void dl_rulesTextStatesTheLimitsTheGameEnforces() {
+        String rules = Dialogs.rulesText();
+        assertTrue(rules.contains("Choose 1, 4, 8, or 10 spots"), rules);
+        assertTrue(rules.contains("Play 1–" + KenoGame.MAX_DRAWINGS + " drawings"), rules);
+        assertTrue(rules.contains("up to " + KenoGame.MAX_AUTO_DRAWINGS), rules);
+        assertTrue(Validators.validDrawings(KenoGame.MAX_DRAWINGS));
+        assertFalse(Validators.validDrawings(KenoGame.MAX_DRAWINGS + 1));
+        new KenoGame().configure(10, KenoGame.MAX_DRAWINGS);
+        assertThrows(IllegalArgumentException.class, () -> new KenoGame().configure(10, KenoGame.MAX_DRAWINGS + 1));
+    }
+}
@@ -0,0 +1,42 @@
+package keno.ui;
+
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class GameLogTests {
+
+    private static List<LogEntry> messages(String... text) {
+        List<LogEntry> out = new ArrayList<>();
+        for (String t : text) out.add(LogEntry.message(t));
+        return out;
+    }
+
+    @Test
+    void gl_spillKeepsSessionOrderWhenABatchOverflows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("log.txt");
+        GameLog log = new GameLog(2, file);
+        log.add(messages("a", "b"));
+        log.add(messages("c", "d", "e", "f", "g"));
+        assertEquals(List.of("f", "g"), log.stream().map(LogEntry::render).toList());
+        log.close();
+        assertEquals(List.of("a", "b", "c", "d", "e", "f", "g"), Files.readAllLines(file));
+    }
+
+    @Test
+    void gl_ringEvictsOldestFirst(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("log.txt");
+        GameLog log = new GameLog(3, file);
+        log.add(messages("a", "b"));
+        log.add(messages("c", "d"));
+        assertEquals(List.of("b", "c", "d"), log.stream().map(LogEntry::render).toList());
+        assertEquals(List.of("a"), Files.readAllLines(file));
+        log.close();
+        assertEquals(List.of("a", "b", "c", "d"), Files.readAllLines(file));
+    }
+}
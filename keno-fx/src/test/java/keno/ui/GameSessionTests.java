@@ -0,0 +1,49 @@
+package keno.ui;
+
+
+import keno.logic.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class GameSessionTests {
+
+    private static void play(GameSession session, int drawings) throws Exception {
+        NumberMask drawn = new NumberMask();
+        for (int i = 0; i < drawings; i++) {
+            session.engine.draw20(drawn);
+            session.journal(4, new MatchResult(i + 1, Set.of(), 0, 0), drawn);
+        }
+    }
+
+    @Test
+    void gs_journaledSessionAuditsAgainstItsSeedAndResumes(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("session.journal");
+        System.setProperty("keno.journal", file.toString());
+        System.setProperty("keno.seed", "4242");
+        try {
+            GameSession first = new GameSession();
+            assertNull(first.journalProblem);
+            play(first, 7);
+            first.close();
+
+            System.clearProperty("keno.seed");      // a reopened journal keeps the seed in its header
+            GameSession second = new GameSession();
+            assertEquals(7, second.engine.nextDrawIndex());
+            play(second, 3);
+            second.close();
+
+            assertEquals(OptionalLong.of(4242), DrawJournal.seedOf(file));
+            DrawAudit.Result report = DrawAudit.audit(file);
+            assertTrue(report.ok(), report.toString());
+            assertEquals(10, report.checked());
+        } finally {
+            System.clearProperty("keno.journal");
+            System.clearProperty("keno.seed");
+        }
+    }
+}
@@ -1,6 +0,0 @@
-package keno.util;
-
-
-public class Validators {
-    public static boolean validDrawings(Integer d) { return d!=null && d>=1 && d<=4; }
-}
\ No newline at end of file